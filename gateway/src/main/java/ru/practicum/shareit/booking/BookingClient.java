@@ -2,61 +2,103 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ClientHttpConnector connector, ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(connector)
+                        .build(),
+                responseCache,
+                null,
+                Set.of(ResponseCache.ITEMS)
         );
     }
 
-    public ResponseEntity<Object> create(long userId, BookingDto requestDto) {
+    public Mono<ResponseEntity<Object>> create(long userId, BookingDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> confirmation(long ownerId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> createAll(long userId, List<BookingDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> confirmation(long ownerId, long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null);
     }
 
-    public ResponseEntity<Object> getByIdAndBookerOrOwner(long userId, long bookingId) {
+    public Mono<ResponseEntity<Object>> decide(long ownerId, List<BookingDecisionDto> decisions) {
+        return patch("/owner/decisions", ownerId, decisions);
+    }
+
+    public Mono<ResponseEntity<Object>> getByIdAndBookerOrOwner(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllByBooker(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllByBooker(long userId, BookingState state, Integer from, Integer size,
+                                                  boolean withTotal) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "withTotal", withTotal
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&from={from}&size={size}&withTotal={withTotal}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllByOwner(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllByOwner(long userId, BookingState state, Integer from, Integer size,
+                                                 boolean withTotal) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "withTotal", withTotal
+        );
+        return get("/owner?state={state}&from={from}&size={size}&withTotal={withTotal}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllByBookerAfter(long userId, BookingState state, String cursor, Integer size,
+                                                      boolean withTotal) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size,
+                "withTotal", withTotal
+        );
+        return get("?state={state}&cursor={cursor}&size={size}&withTotal={withTotal}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllByOwnerAfter(long userId, BookingState state, String cursor, Integer size,
+                                                     boolean withTotal) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size,
+                "withTotal", withTotal
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get("/owner?state={state}&cursor={cursor}&size={size}&withTotal={withTotal}", userId, parameters);
     }
-}
\ No newline at end of file
+}
@@ -5,13 +5,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exceptions.ValidationException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 import static ru.practicum.shareit.error.ExceptionDescriptions.BOOKING_START_DATE_LATER_END_DATE;
 import static ru.practicum.shareit.error.ExceptionDescriptions.UNKNOWN_STATE;
@@ -24,7 +29,7 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(
+    public Mono<ResponseEntity<Object>> create(
             @RequestHeader("X-Sharer-User-Id") Long bookerId,
             @RequestBody @Valid BookingDto bookingDto) {
         if (bookingDto.getEnd().isBefore(bookingDto.getStart())) {
@@ -33,43 +38,67 @@ public class BookingController {
         return bookingClient.create(bookerId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createAll(
+            @Positive @RequestHeader("X-Sharer-User-Id") Long bookerId,
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid BookingDto> bookingDtos) {
+        return bookingClient.createAll(bookerId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> confirmation(
+    public Mono<ResponseEntity<Object>> confirmation(
             @Positive @RequestHeader("X-Sharer-User-Id") Long ownerId,
             @Positive @PathVariable Long bookingId,
             @RequestParam(name = "approved") boolean approved) {
         return bookingClient.confirmation(ownerId, bookingId, approved);
     }
 
+    @PatchMapping("/owner/decisions")
+    public Mono<ResponseEntity<Object>> decide(
+            @Positive @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid BookingDecisionDto> decisions) {
+        return bookingClient.decide(ownerId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getByIdAndBookerOrOwner(
+    public Mono<ResponseEntity<Object>> getByIdAndBookerOrOwner(
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
             @Positive @PathVariable Long bookingId) {
         return bookingClient.getByIdAndBookerOrOwner(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByBooker(
+    public Mono<ResponseEntity<Object>> getAllByBooker(
             @Positive @RequestHeader("X-Sharer-User-Id") Long bookerId,
             @RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
             @PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0")
             int from,
             @Positive @RequestParam(name = "size", required = false, defaultValue = "10")
-            int size) {
+            int size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "withTotal", required = false, defaultValue = "false") boolean withTotal) {
         BookingState bookingState = getValidState(state);
-        return bookingClient.getAllByBooker(bookerId, bookingState, from, size);
+        if (cursor != null) {
+            return bookingClient.getAllByBookerAfter(bookerId, bookingState, cursor, size, withTotal);
+        }
+        return bookingClient.getAllByBooker(bookerId, bookingState, from, size, withTotal);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllByOwner(
+    public Mono<ResponseEntity<Object>> getAllByOwner(
             @RequestHeader("X-Sharer-User-Id") Long bookerId,
             @RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
             @PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0")
             int from,
             @Positive @RequestParam(name = "size", required = false, defaultValue = "10")
-            int size) {
+            int size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "withTotal", required = false, defaultValue = "false") boolean withTotal) {
         BookingState bookingState = getValidState(state);
-        return bookingClient.getAllByOwner(bookerId, bookingState, from, size);
+        if (cursor != null) {
+            return bookingClient.getAllByOwnerAfter(bookerId, bookingState, cursor, size, withTotal);
+        }
+        return bookingClient.getAllByOwner(bookerId, bookingState, from, size, withTotal);
     }
 
     private BookingState getValidState(String stateBooking) {
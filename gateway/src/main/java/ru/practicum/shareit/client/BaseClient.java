@@ -2,106 +2,176 @@ package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    protected final WebClient webClient;
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlightGets = new ConcurrentHashMap<>();
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
-    }
+    @Nullable
+    private final ResponseCache responseCache;
+    @Nullable
+    private final String cacheRegion;
+    private final Set<String> invalidatedOnWrite;
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    public BaseClient(WebClient webClient) {
+        this(webClient, null, null, Set.of());
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    public BaseClient(WebClient webClient, @Nullable ResponseCache responseCache, @Nullable String cacheRegion,
+                      Set<String> invalidatedOnWrite) {
+        this.webClient = webClient;
+        this.responseCache = responseCache;
+        this.cacheRegion = cacheRegion;
+        this.invalidatedOnWrite = invalidatedOnWrite;
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static ResponseEntity<Object> prepareGatewayResponse(HttpStatus status, HttpHeaders serverHeaders,
+                                                                 @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (isForwardedHeader(name)) {
+                headers.put(name, values);
+            }
+        });
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(headers);
+        if (body == null || body.length == 0) {
+            return responseBuilder.build();
         }
+        return responseBuilder.body(body);
+    }
 
-        return responseBuilder.build();
+    private static boolean isForwardedHeader(String name) {
+        return HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+                || HttpHeaders.ETAG.equalsIgnoreCase(name)
+                || name.regionMatches(true, 0, "X-", 0, 2);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        String key = getKey(path, userId, parameters);
+        return Mono.defer(() -> inFlightGets.computeIfAbsent(key, k -> cachedGet(k, path, userId, parameters)
+                .doFinally(signal -> inFlightGets.remove(k))
+                .cache()));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return invalidateOnSuccess(makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null));
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return invalidateOnSuccess(makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null));
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected ResponseEntity<Object> patch(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return invalidateOnSuccess(makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null));
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return invalidateOnSuccess(makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null));
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            shareitServerResponse = (parameters != null) ?
-                    rest.exchange(path, method, requestEntity, Object.class, parameters) :
-                    rest.exchange(path, method, requestEntity, Object.class);
-
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private Mono<ResponseEntity<Object>> cachedGet(String key, String path, Long userId,
+                                                   @Nullable Map<String, Object> parameters) {
+        if (responseCache == null || cacheRegion == null) {
+            return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return Mono.defer(() -> {
+            long generation = responseCache.generation(cacheRegion);
+            ResponseCache.CachedResponse cached = responseCache.get(cacheRegion, generation, key);
+            if (cached != null && cached.isFresh()) {
+                return Mono.just(cached.getResponse());
+            }
+            return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null,
+                    cached != null ? cached.getEtag() : null)
+                    .map(response -> {
+                        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                            responseCache.revalidated(cacheRegion, key, generation, cached);
+                            return cached.getResponse();
+                        }
+                        responseCache.put(cacheRegion, key, generation, response);
+                        return response;
+                    });
+        });
+    }
+
+    private Mono<ResponseEntity<Object>> invalidateOnSuccess(Mono<ResponseEntity<Object>> call) {
+        return call.doOnNext(response -> {
+            if (responseCache != null && response.getStatusCode().is2xxSuccessful()) {
+                responseCache.invalidate(invalidatedOnWrite);
+            }
+        });
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body, @Nullable String ifNoneMatch) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(userId));
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                });
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody
+                .exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> prepareGatewayResponse(response.getStatusCode(), response.getHeaders(),
+                        response.getBody()));
+    }
+
+    private static String getKey(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return "GET " + path
+                + (parameters != null ? " " + new TreeMap<>(parameters) : "")
+                + (userId != null ? " user=" + userId : "");
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ResponseCache {
+    public static final String ITEMS = "/items";
+    public static final String REQUESTS = "/requests";
+
+    private final Cache<String, CachedResponse> cache;
+    private final long freshForNanos;
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .build();
+        this.freshForNanos = properties.getFreshFor().toNanos();
+    }
+
+    @Nullable
+    public CachedResponse get(String region, long generation, String key) {
+        return cache.getIfPresent(cacheKey(region, generation, key));
+    }
+
+    public long generation(String region) {
+        return generationOf(region).get();
+    }
+
+    public void put(String region, String key, long generation, ResponseEntity<Object> response) {
+        HttpHeaders headers = response.getHeaders();
+        String etag = headers.getETag();
+        if (response.getStatusCode() != HttpStatus.OK || etag == null || headers.containsKey("X-Total-Count")) {
+            return;
+        }
+        store(region, key, generation, new CachedResponse(response, etag, System.nanoTime()));
+    }
+
+    public void revalidated(String region, String key, long generation, CachedResponse cached) {
+        store(region, key, generation, new CachedResponse(cached.getResponse(), cached.getEtag(), System.nanoTime()));
+    }
+
+    public void invalidate(Collection<String> regions) {
+        regions.forEach(region -> generationOf(region).incrementAndGet());
+    }
+
+    private void store(String region, String key, long generation, CachedResponse cached) {
+        if (generation(region) == generation) {
+            cache.put(cacheKey(region, generation, key), cached);
+        }
+    }
+
+    private static String cacheKey(String region, long generation, String key) {
+        return region + " " + generation + " " + key;
+    }
+
+    private AtomicLong generationOf(String region) {
+        return generations.computeIfAbsent(region, r -> new AtomicLong());
+    }
+
+    @Getter
+    public class CachedResponse {
+        private final ResponseEntity<Object> response;
+        private final String etag;
+        private final long validatedAt;
+
+        private CachedResponse(ResponseEntity<Object> response, String etag, long validatedAt) {
+            this.response = response;
+            this.etag = etag;
+            this.validatedAt = validatedAt;
+        }
+
+        public boolean isFresh() {
+            return System.nanoTime() - validatedAt < freshForNanos;
+        }
+    }
+}
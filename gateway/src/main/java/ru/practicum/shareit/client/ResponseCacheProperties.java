@@ -0,0 +1,16 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.response-cache")
+public class ResponseCacheProperties {
+    private long maxSize = 10_000;
+    private Duration timeToLive = Duration.ofMinutes(10);
+    private Duration freshFor = Duration.ofSeconds(2);
+}
@@ -20,7 +20,8 @@ public enum ExceptionDescriptions {
     FORBIDDEN_TO_ADD_COMMENTS("Forbidden to add comments"),
     UNKNOWN_STATE("Unknown state: UNSUPPORTED_STATUS"),
     FROM_OR_SIZE_LESS_THAN_ZERO("From or size less than zero"),
-    ITEM_REQUEST_NOT_FOUND("Item request not found");
+    ITEM_REQUEST_NOT_FOUND("Item request not found"),
+    INVALID_TIME_WINDOW("Window start must be earlier than its end");
 
     private final String title;
 
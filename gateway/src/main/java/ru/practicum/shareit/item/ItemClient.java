@@ -2,65 +2,82 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ClientHttpConnector connector, ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(connector)
+                        .build(),
+                responseCache,
+                ResponseCache.ITEMS,
+                Set.of(ResponseCache.ITEMS, ResponseCache.REQUESTS)
         );
     }
 
-    public ResponseEntity<Object> findAll(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> findAll(long userId, Integer from, Integer size, boolean withTotal) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
-                "size", size
+                "size", size,
+                "withTotal", withTotal
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return get("?from={from}&size={size}&withTotal={withTotal}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findById(long itemId, long userId) {
+    public Mono<ResponseEntity<Object>> findById(long itemId, long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> save(long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> findAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> save(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> update(long userId, long itemId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> update(long userId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> delete(long userId, long itemId) {
+    public Mono<ResponseEntity<Object>> delete(long userId, long itemId) {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> search(String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> search(String text, Integer from, Integer size, boolean withTotal) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
-                "size", size
+                "size", size,
+                "withTotal", withTotal
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return get("/search?text={text}&from={from}&size={size}&withTotal={withTotal}", null, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long authorId, long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(long authorId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", authorId, commentDto);
     }
 }
\ No newline at end of file
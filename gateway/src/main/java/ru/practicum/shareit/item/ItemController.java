@@ -2,11 +2,13 @@ package ru.practicum.shareit.item;
 
 import io.micrometer.core.instrument.util.StringUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -16,6 +18,7 @@ import javax.validation.constraints.Min;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 import static ru.practicum.shareit.error.ExceptionDescriptions.*;
@@ -28,22 +31,38 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> findAll(@Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
+    public Mono<ResponseEntity<Object>> findAll(@Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
                                           @PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0")
                                           int from,
                                           @Positive @RequestParam(name = "size", required = false, defaultValue = "10")
-                                          int size) {
-        return itemClient.findAll(userId, from, size);
+                                          int size,
+                                          @RequestParam(name = "withTotal", required = false, defaultValue = "false")
+                                          boolean withTotal) {
+        return itemClient.findAll(userId, from, size, withTotal);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> findById(@Positive @PathVariable("itemId") @Min(0) long itemId,
+    public Mono<ResponseEntity<Object>> findById(@Positive @PathVariable("itemId") @Min(0) long itemId,
                                            @Positive @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemClient.findById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> findAvailability(@Positive @PathVariable("itemId") long itemId,
+                                                   @RequestParam("from")
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam("to")
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException(INVALID_TIME_WINDOW.getTitle());
+        }
+        return itemClient.findAvailability(itemId, from, to);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> save(@Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
+    public Mono<ResponseEntity<Object>> save(@Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
                                        @RequestBody @Valid ItemDto itemDto) {
         if (itemDto.getAvailable() == null) {
             throw new ValidationException(AVAILABLE_NOT_FOUND.getTitle());
@@ -58,7 +77,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
+    public Mono<ResponseEntity<Object>> update(@Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
                                          @Positive @PathVariable("itemId") @Min(0) long itemId,
                                          @RequestBody @Valid ItemDto itemDto) {
 
@@ -66,25 +85,27 @@ public class ItemController {
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> delete(@Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
+    public Mono<ResponseEntity<Object>> delete(@Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
                        @Positive @PathVariable("itemId") @Min(0) long itemId) {
         return itemClient.delete(userId, itemId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam(value = "text") String text,
+    public Mono<ResponseEntity<Object>> search(@RequestParam(value = "text") String text,
                                          @PositiveOrZero @RequestParam(name = "from", required = false, defaultValue = "0")
                                          int from,
                                          @Positive @RequestParam(name = "size", required = false, defaultValue = "10")
-                                         int size) {
+                                         int size,
+                                         @RequestParam(name = "withTotal", required = false, defaultValue = "false")
+                                         boolean withTotal) {
         if (!StringUtils.isNotBlank(text)) {
-            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
+            return Mono.just(new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK));
         }
-        return itemClient.search(text, from, size);
+        return itemClient.search(text, from, size, withTotal);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") Long authorId, @PathVariable long itemId,
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader("X-Sharer-User-Id") Long authorId, @PathVariable long itemId,
                                              @RequestBody CommentDto commentDto) {
         if (!StringUtils.isNotBlank(commentDto.getText())) {
             throw new ValidationException(EMPTY_NAME.getTitle());
@@ -2,47 +2,62 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             ClientHttpConnector connector, ResponseCache responseCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(connector)
+                        .build(),
+                responseCache,
+                ResponseCache.REQUESTS,
+                Set.of(ResponseCache.REQUESTS)
         );
     }
 
-    public ResponseEntity<Object> findAllByOwner(long userId) {
+    public Mono<ResponseEntity<Object>> findAllByOwner(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> findAllByAnotherUser(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> findAllByOwnerAfter(long userId, String cursor, Integer size) {
         Map<String, Object> parameters = Map.of(
-                "from", from,
+                "cursor", cursor,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get("?cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> findAllByAnotherUser(long userId, Integer from, Integer size, boolean withTotal) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size,
+                "withTotal", withTotal
+        );
+        return get("/all?from={from}&size={size}&withTotal={withTotal}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findById(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> findById(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> save(long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> save(long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 }
\ No newline at end of file
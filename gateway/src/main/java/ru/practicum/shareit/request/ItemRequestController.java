@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -20,28 +21,37 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @GetMapping
-    public ResponseEntity<Object> findAllByOwner(@Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId) {
+    public Mono<ResponseEntity<Object>> findAllByOwner(
+            @Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Positive @RequestParam(value = "size", required = false, defaultValue = "10")
+            int size) {
+        if (cursor != null) {
+            return itemRequestClient.findAllByOwnerAfter(userId, cursor, size);
+        }
         return itemRequestClient.findAllByOwner(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> findAllByAnotherUser(
+    public Mono<ResponseEntity<Object>> findAllByAnotherUser(
             @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
             @PositiveOrZero @RequestParam(value = "from", required = false, defaultValue = "0")
             int from,
             @Positive @RequestParam(value = "size", required = false, defaultValue = "10")
-            int size) {
-        return itemRequestClient.findAllByAnotherUser(userId, from, size);
+            int size,
+            @RequestParam(value = "withTotal", required = false, defaultValue = "false")
+            boolean withTotal) {
+        return itemRequestClient.findAllByAnotherUser(userId, from, size, withTotal);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> findById(@Positive @PathVariable("requestId") @Min(0) long requestId,
+    public Mono<ResponseEntity<Object>> findById(@Positive @PathVariable("requestId") @Min(0) long requestId,
                                            @Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId) {
         return itemRequestClient.findById(userId, requestId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> save(@Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
+    public Mono<ResponseEntity<Object>> save(@Positive @RequestHeader("X-Sharer-User-Id") @Min(0) long userId,
                                        @RequestBody @Valid ItemRequestDto itemRequestDto) {
         return itemRequestClient.save(userId, itemRequestDto);
     }
@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -24,17 +25,17 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> findAll() {
+    public Mono<ResponseEntity<Object>> findAll() {
         return userClient.findAll();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> findById(@Positive @PathVariable("userId") @Min(0) long userId) {
+    public Mono<ResponseEntity<Object>> findById(@Positive @PathVariable("userId") @Min(0) long userId) {
         return userClient.findById(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> save(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Object>> save(@RequestBody @Valid UserDto userDto) {
         if (userDto.getEmail() == null) {
             throw new ValidationException(EMPTY_EMAIL.getTitle());
         }
@@ -45,13 +46,13 @@ public class UserController {
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@Positive @PathVariable("userId") @Min(0) long userId,
+    public Mono<ResponseEntity<Object>> update(@Positive @PathVariable("userId") @Min(0) long userId,
                                          @RequestBody @Valid UserDto userDto) {
         return userClient.update(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@Positive @PathVariable("userId") @Min(0) long userId) {
+    public Mono<ResponseEntity<Object>> delete(@Positive @PathVariable("userId") @Min(0) long userId) {
         return userClient.delete(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientTests {
+    private static final String BODY = "{\"id\":1}";
+    private static final String ETAG = "\"v1\"";
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private Function<ClientRequest, Mono<ClientResponse>> server;
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void init() {
+        server = request -> Mono.just(ok(BODY));
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setFreshFor(Duration.ofMinutes(1));
+        responseCache = new ResponseCache(properties);
+    }
+
+    @Test
+    void get_shouldShareOneUpstreamCallBetweenConcurrentIdenticalGets() {
+        Sinks.One<ClientResponse> pending = Sinks.one();
+        server = request -> pending.asMono();
+        BaseClient client = new BaseClient(webClient());
+
+        Mono<ResponseEntity<Object>> first = client.get("/1", 1L).cache();
+        Mono<ResponseEntity<Object>> second = client.get("/1", 1L).cache();
+        first.subscribe();
+        second.subscribe();
+        pending.tryEmitValue(ok(BODY));
+
+        assertEquals(1, requests.size());
+        assertSame(first.block(), second.block());
+    }
+
+    @Test
+    void get_shouldCallServerAgainAfterSharedCallCompletes() {
+        BaseClient client = new BaseClient(webClient());
+
+        client.get("/1", 1L).block();
+        client.get("/1", 1L).block();
+
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void get_shouldCallServerAgainAfterSharedCallFails() {
+        server = request -> Mono.error(new IllegalStateException("connection reset"));
+        BaseClient client = new BaseClient(webClient());
+        assertThrows(IllegalStateException.class, () -> client.get("/1", 1L).block());
+        server = request -> Mono.just(ok(BODY));
+
+        ResponseEntity<Object> response = client.get("/1", 1L).block();
+
+        assertEquals(2, requests.size());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void get_shouldNotShareCallsBetweenUsers() {
+        Sinks.One<ClientResponse> pending = Sinks.one();
+        server = request -> pending.asMono();
+        BaseClient client = new BaseClient(webClient());
+
+        client.get("/1", 1L).subscribe();
+        client.get("/1", 2L).subscribe();
+        pending.tryEmitValue(ok(BODY));
+
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void get_shouldServeFreshCachedCopyWithoutCallingServer() {
+        BaseClient client = cachingClient();
+
+        ResponseEntity<Object> first = client.get("/1", 1L).block();
+        ResponseEntity<Object> second = client.get("/1", 1L).block();
+
+        assertEquals(1, requests.size());
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), (byte[]) first.getBody());
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), (byte[]) second.getBody());
+    }
+
+    @Test
+    void get_shouldRevalidateStaleCopyAndKeepItOnNotModified() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setFreshFor(Duration.ZERO);
+        responseCache = new ResponseCache(properties);
+        BaseClient client = cachingClient();
+        client.get("/1", 1L).block();
+        server = request -> Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+
+        ResponseEntity<Object> revalidated = client.get("/1", 1L).block();
+
+        assertEquals(2, requests.size());
+        assertEquals(ETAG, requests.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), (byte[]) revalidated.getBody());
+    }
+
+    @Test
+    void post_shouldInvalidateRegionOnSuccess() {
+        BaseClient client = cachingClient();
+        client.get("/1", 1L).block();
+
+        client.post("", 1L, BODY).block();
+        client.get("/1", 1L).block();
+
+        assertEquals(3, requests.size());
+        assertEquals(HttpMethod.GET, requests.get(2).method());
+        assertNull(requests.get(2).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void post_shouldKeepRegionCachedOnError() {
+        BaseClient client = cachingClient();
+        client.get("/1", 1L).block();
+        server = request -> Mono.just(ClientResponse.create(HttpStatus.BAD_REQUEST).build());
+
+        client.post("", 1L, BODY).block();
+        client.get("/1", 1L).block();
+
+        assertEquals(2, requests.size());
+    }
+
+    private BaseClient cachingClient() {
+        return new BaseClient(webClient(), responseCache, ResponseCache.ITEMS, Set.of(ResponseCache.ITEMS));
+    }
+
+    private WebClient webClient() {
+        return WebClient.builder()
+                .baseUrl("http://shareit-server/items")
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return server.apply(request);
+                })
+                .build();
+    }
+
+    private static ClientResponse ok(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ETAG, ETAG)
+                .body(body)
+                .build();
+    }
+}
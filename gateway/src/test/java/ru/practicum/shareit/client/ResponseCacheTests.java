@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTests {
+    private static final String KEY = "GET /1 user=1";
+    private static final String ETAG = "\"v1\"";
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void init() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setFreshFor(Duration.ofMinutes(1));
+        responseCache = new ResponseCache(properties);
+    }
+
+    @Test
+    void put_shouldStoreOkResponseWithEtagUnderCurrentGeneration() {
+        long generation = responseCache.generation(ResponseCache.ITEMS);
+
+        responseCache.put(ResponseCache.ITEMS, KEY, generation, response(ETAG));
+
+        ResponseCache.CachedResponse cached = responseCache.get(ResponseCache.ITEMS, generation, KEY);
+        assertNotNull(cached);
+        assertEquals(ETAG, cached.getEtag());
+        assertTrue(cached.isFresh());
+    }
+
+    @Test
+    void put_shouldSkipResponsesWithoutEtagOrWithTotal() {
+        long generation = responseCache.generation(ResponseCache.ITEMS);
+        ResponseEntity<Object> withTotal = ResponseEntity.ok()
+                .eTag(ETAG)
+                .header("X-Total-Count", "7")
+                .body((Object) new byte[]{1});
+
+        responseCache.put(ResponseCache.ITEMS, KEY, generation, response(null));
+        responseCache.put(ResponseCache.ITEMS, "GET /search", generation, withTotal);
+
+        assertNull(responseCache.get(ResponseCache.ITEMS, generation, KEY));
+        assertNull(responseCache.get(ResponseCache.ITEMS, generation, "GET /search"));
+    }
+
+    @Test
+    void put_shouldDropResponseFetchedBeforeInvalidation() {
+        long generation = responseCache.generation(ResponseCache.ITEMS);
+
+        responseCache.invalidate(List.of(ResponseCache.ITEMS));
+        responseCache.put(ResponseCache.ITEMS, KEY, generation, response(ETAG));
+
+        long current = responseCache.generation(ResponseCache.ITEMS);
+        assertNotEquals(generation, current);
+        assertNull(responseCache.get(ResponseCache.ITEMS, generation, KEY));
+        assertNull(responseCache.get(ResponseCache.ITEMS, current, KEY));
+    }
+
+    @Test
+    void revalidated_shouldNotRestoreEntryAfterInvalidation() {
+        long generation = responseCache.generation(ResponseCache.ITEMS);
+        responseCache.put(ResponseCache.ITEMS, KEY, generation, response(ETAG));
+        ResponseCache.CachedResponse cached = responseCache.get(ResponseCache.ITEMS, generation, KEY);
+
+        responseCache.invalidate(List.of(ResponseCache.ITEMS));
+        responseCache.revalidated(ResponseCache.ITEMS, KEY, generation, cached);
+
+        assertNull(responseCache.get(ResponseCache.ITEMS, responseCache.generation(ResponseCache.ITEMS), KEY));
+    }
+
+    @Test
+    void invalidate_shouldLeaveOtherRegionsCached() {
+        long itemsGeneration = responseCache.generation(ResponseCache.ITEMS);
+        long requestsGeneration = responseCache.generation(ResponseCache.REQUESTS);
+        responseCache.put(ResponseCache.ITEMS, KEY, itemsGeneration, response(ETAG));
+        responseCache.put(ResponseCache.REQUESTS, KEY, requestsGeneration, response(ETAG));
+
+        responseCache.invalidate(List.of(ResponseCache.ITEMS));
+
+        assertNull(responseCache.get(ResponseCache.ITEMS, responseCache.generation(ResponseCache.ITEMS), KEY));
+        assertNotNull(responseCache.get(ResponseCache.REQUESTS,
+                responseCache.generation(ResponseCache.REQUESTS), KEY));
+    }
+
+    private static ResponseEntity<Object> response(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        return new ResponseEntity<>(new byte[]{1}, headers, HttpStatus.OK);
+    }
+}
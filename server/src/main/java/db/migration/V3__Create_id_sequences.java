@@ -0,0 +1,35 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+public class V3__Create_id_sequences extends BaseJavaMigration {
+
+    private static final int CHECKSUM = 1;
+    private static final int ALLOCATION_SIZE = 50;
+    private static final List<String> TABLES = List.of("users", "requests", "items", "comments", "bookings");
+
+    @Override
+    public Integer getChecksum() {
+        return CHECKSUM;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long start;
+                try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    resultSet.next();
+                    start = resultSet.getLong(1);
+                }
+                statement.execute("CREATE SEQUENCE " + table + "_seq START WITH " + start
+                        + " INCREMENT BY " + ALLOCATION_SIZE);
+            }
+        }
+    }
+}
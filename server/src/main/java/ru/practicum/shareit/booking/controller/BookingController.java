@@ -1,5 +1,8 @@
 package ru.practicum.shareit.booking.controller;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 
@@ -10,11 +13,11 @@ public interface BookingController {
 
     Optional<BookingFullDto> create(Long bookerId, BookingDto bookingDto);
 
-    Optional<BookingFullDto> confirmation(Long ownerItemId, Long bookingId, boolean approved);
+    List<BookingBatchResultDto> createAll(Long bookerId, List<BookingDto> bookingDtos);
 
-    Optional<BookingFullDto> getByIdAndBookerOrOwner(Long userId, Long bookingId);
+    Optional<BookingFullDto> confirmation(Long ownerItemId, Long bookingId, boolean approved);
 
-    List<BookingFullDto> getAllByBooker(Long bookerId, String state, int from, int size);
+    List<BookingDecisionResultDto> decide(Long ownerId, List<BookingDecisionDto> decisions);
 
-    List<BookingFullDto> getAllByOwner(Long bookerId, String state, int from, int size);
+    Optional<BookingFullDto> getByIdAndBookerOrOwner(Long userId, Long bookingId);
 }
\ No newline at end of file
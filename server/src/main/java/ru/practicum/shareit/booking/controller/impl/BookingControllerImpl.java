@@ -1,11 +1,17 @@
 package ru.practicum.shareit.booking.controller.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.pagination.PageHeaders;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +31,14 @@ public class BookingControllerImpl implements BookingController {
         return service.create(bookerId, bookingDto);
     }
 
+    @Override
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createAll(
+            @RequestHeader("X-Sharer-User-Id") Long bookerId,
+            @RequestBody List<BookingDto> bookingDtos) {
+        return service.createAll(bookerId, bookingDtos);
+    }
+
     @Override
     @PatchMapping("/{bookingId}")
     public Optional<BookingFullDto> confirmation(
@@ -34,6 +48,14 @@ public class BookingControllerImpl implements BookingController {
         return service.confirmation(ownerId, bookingId, approved);
     }
 
+    @Override
+    @PatchMapping("/owner/decisions")
+    public List<BookingDecisionResultDto> decide(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestBody List<BookingDecisionDto> decisions) {
+        return service.decide(ownerId, decisions);
+    }
+
     @Override
     @GetMapping("/{bookingId}")
     public Optional<BookingFullDto> getByIdAndBookerOrOwner(
@@ -42,27 +64,73 @@ public class BookingControllerImpl implements BookingController {
         return service.getByIdAndBookerOrOwner(userId, bookingId);
     }
 
-    @Override
     @GetMapping
-    public List<BookingFullDto> getAllByBooker(
+    public ResponseEntity<List<BookingFullDto>> getAllByBooker(
             @RequestHeader("X-Sharer-User-Id") Long bookerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @RequestParam(value = "from", required = false, defaultValue = "0")
             int from,
             @RequestParam(value = "size", required = false, defaultValue = "10")
-            int size) {
-        return service.getAllByBooker(bookerId, state, from, size);
+            int size,
+            @RequestParam(value = "withTotal", required = false, defaultValue = "false")
+            boolean withTotal) {
+        List<BookingFullDto> bookings = service.getAllByBooker(bookerId, state, from, size);
+        Long total = withTotal ? service.countByBooker(bookerId, state) : null;
+        return toResponse(bookings, null, total);
     }
 
-    @Override
     @GetMapping("/owner")
-    public List<BookingFullDto> getAllByOwner(
-            @RequestHeader("X-Sharer-User-Id") Long bookerId,
+    public ResponseEntity<List<BookingFullDto>> getAllByOwner(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @RequestParam(value = "from", required = false, defaultValue = "0")
             int from,
             @RequestParam(value = "size", required = false, defaultValue = "10")
-            int size) {
-        return service.getAllByOwner(bookerId, state, from, size);
+            int size,
+            @RequestParam(value = "withTotal", required = false, defaultValue = "false")
+            boolean withTotal) {
+        List<BookingFullDto> bookings = service.getAllByOwner(ownerId, state, from, size);
+        Long total = withTotal ? service.countByOwner(ownerId, state) : null;
+        return toResponse(bookings, null, total);
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<BookingFullDto>> getAllByBookerAfter(
+            @RequestHeader("X-Sharer-User-Id") Long bookerId,
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", required = false, defaultValue = "10")
+            int size,
+            @RequestParam(value = "withTotal", required = false, defaultValue = "false")
+            boolean withTotal) {
+        KeysetPage<BookingFullDto> page = service.getAllByBookerAfter(bookerId, state, cursor, size);
+        Long total = withTotal ? service.countByBooker(bookerId, state) : null;
+        return toResponse(page.getContent(), page.getNextCursor(), total);
+    }
+
+    @GetMapping(value = "/owner", params = "cursor")
+    public ResponseEntity<List<BookingFullDto>> getAllByOwnerAfter(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", required = false, defaultValue = "10")
+            int size,
+            @RequestParam(value = "withTotal", required = false, defaultValue = "false")
+            boolean withTotal) {
+        KeysetPage<BookingFullDto> page = service.getAllByOwnerAfter(ownerId, state, cursor, size);
+        Long total = withTotal ? service.countByOwner(ownerId, state) : null;
+        return toResponse(page.getContent(), page.getNextCursor(), total);
+    }
+
+    private ResponseEntity<List<BookingFullDto>> toResponse(List<BookingFullDto> bookings, String nextCursor,
+                                                            Long total) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(PageHeaders.NEXT_CURSOR, nextCursor);
+        }
+        if (total != null) {
+            response.header(PageHeaders.TOTAL_COUNT, String.valueOf(total));
+        }
+        return response.body(bookings);
     }
-}
\ No newline at end of file
+}
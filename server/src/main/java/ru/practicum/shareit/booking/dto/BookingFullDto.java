@@ -17,6 +17,11 @@ public class BookingFullDto {
     private BookerDto booker;
     private BookingItemDto item;
 
+    public BookingFullDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                          Long bookerId, String bookerName, Long itemId, String itemName) {
+        this(id, start, end, status, new BookerDto(bookerId, bookerName), new BookingItemDto(itemId, itemName));
+    }
+
     @AllArgsConstructor
     @Getter
     public static class BookerDto {
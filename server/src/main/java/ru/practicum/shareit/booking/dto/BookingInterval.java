@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class BookingInterval {
+    private long itemId;
+    private long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
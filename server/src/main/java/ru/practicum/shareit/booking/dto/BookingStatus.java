@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking.dto;
 
+import java.util.List;
+
 public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED;
+
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(WAITING, APPROVED);
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.dto.BookingStatus.ACTIVE_STATUSES;
+import static ru.practicum.shareit.config.TransactionCallbacks.afterCommit;
+import static ru.practicum.shareit.config.TransactionCallbacks.afterCompletion;
+import static ru.practicum.shareit.error.ExceptionDescriptions.BOOKING_DATES_OVERLAP;
+
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+
+    private static final int MAX_SLOTS = 10_000;
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, Slot> slots = new ConcurrentHashMap<>();
+
+    public Booking save(Booking booking) {
+        evictIdleSlots();
+        long itemId = booking.getItem().getId();
+        Slot slot = lockSlot(itemId);
+        try {
+            IntervalTree tree = slot.getTree(itemId);
+            if (tree.overlaps(booking.getStart(), booking.getEnd())) {
+                throw new ValidationException(BOOKING_DATES_OVERLAP.getTitle());
+            }
+            Booking savedBooking = bookingRepository.save(booking);
+            hold(slot, List.of(toInterval(savedBooking)));
+            return savedBooking;
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    public List<Booking> saveAll(List<Booking> bookings) {
+        evictIdleSlots();
+        TreeSet<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Slot> lockedSlots = new HashMap<>();
+        try {
+            for (Long itemId : itemIds) {
+                lockedSlots.put(itemId, lockSlot(itemId));
+            }
+            return saveAllLocked(bookings, lockedSlots);
+        } finally {
+            lockedSlots.values().forEach(slot -> slot.lock.unlock());
+        }
+    }
+
+    public void release(Collection<Booking> bookings) {
+        releaseIntervals(bookings.stream()
+                .map(this::toInterval)
+                .collect(Collectors.toList()));
+    }
+
+    public void releaseBooker(long bookerId) {
+        releaseIntervals(bookingRepository.findIntervalsByBookerId(bookerId, ACTIVE_STATUSES, LocalDateTime.now()));
+    }
+
+    public void evictAll(Collection<Long> itemIds) {
+        List<Long> ids = List.copyOf(itemIds);
+        afterCompletion(committed -> ids.forEach(this::evictNow));
+    }
+
+    public void evict(long itemId) {
+        evictAll(List.of(itemId));
+    }
+
+    private List<Booking> saveAllLocked(List<Booking> bookings, Map<Long, Slot> lockedSlots) {
+        Map<Long, IntervalTree> batchTrees = new TreeMap<>();
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            long itemId = booking.getItem().getId();
+            IntervalTree batchTree = batchTrees.computeIfAbsent(itemId, id -> new IntervalTree());
+            if (lockedSlots.get(itemId).getTree(itemId).overlaps(booking.getStart(), booking.getEnd())
+                    || batchTree.overlaps(booking.getStart(), booking.getEnd())) {
+                continue;
+            }
+            batchTree.insert(booking.getStart(), booking.getEnd(), i);
+            accepted.add(booking);
+        }
+        List<Booking> savedBookings = bookingRepository.saveAll(accepted);
+        savedBookings.stream()
+                .map(this::toInterval)
+                .collect(Collectors.groupingBy(BookingInterval::getItemId))
+                .forEach((itemId, intervals) -> hold(lockedSlots.get(itemId), intervals));
+        return savedBookings;
+    }
+
+    private void releaseIntervals(List<BookingInterval> intervals) {
+        afterCommit(() -> intervals.forEach(this::remove));
+    }
+
+    private void hold(Slot slot, List<BookingInterval> intervals) {
+        intervals.forEach(interval -> slot.tree.insert(interval.getStart(), interval.getEnd(), interval.getId()));
+        slot.pending++;
+        afterCompletion(committed -> {
+            slot.lock.lock();
+            try {
+                slot.pending--;
+                if (!committed && slot.tree != null) {
+                    intervals.forEach(interval -> slot.tree.remove(interval.getStart(), interval.getId()));
+                }
+            } finally {
+                slot.lock.unlock();
+            }
+        });
+    }
+
+    private Slot lockSlot(long itemId) {
+        while (true) {
+            Slot slot = slots.computeIfAbsent(itemId, id -> new Slot());
+            slot.lock.lock();
+            if (!slot.evicted) {
+                return slot;
+            }
+            slot.lock.unlock();
+        }
+    }
+
+    private void remove(BookingInterval interval) {
+        Slot slot = slots.get(interval.getItemId());
+        if (slot == null) {
+            return;
+        }
+        slot.lock.lock();
+        try {
+            if (slot.tree != null) {
+                slot.tree.remove(interval.getStart(), interval.getId());
+            }
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    private void evictNow(long itemId) {
+        Slot slot = slots.get(itemId);
+        if (slot == null) {
+            return;
+        }
+        slot.lock.lock();
+        try {
+            evict(itemId, slot);
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    private void evictIdleSlots() {
+        if (slots.size() <= MAX_SLOTS) {
+            return;
+        }
+        slots.forEach((itemId, slot) -> {
+            if (slot.lock.tryLock()) {
+                try {
+                    if (slot.pending == 0) {
+                        evict(itemId, slot);
+                    }
+                } finally {
+                    slot.lock.unlock();
+                }
+            }
+        });
+    }
+
+    private void evict(long itemId, Slot slot) {
+        slot.evicted = true;
+        slot.tree = null;
+        slots.remove(itemId, slot);
+    }
+
+    private BookingInterval toInterval(Booking booking) {
+        return new BookingInterval(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+    }
+
+    private class Slot {
+        private final ReentrantLock lock = new ReentrantLock();
+        private IntervalTree tree;
+        private int pending;
+        private boolean evicted;
+
+        IntervalTree getTree(long itemId) {
+            LocalDateTime now = LocalDateTime.now();
+            if (tree == null) {
+                IntervalTree loaded = new IntervalTree();
+                bookingRepository.findIntervalsByItemId(itemId, ACTIVE_STATUSES, now)
+                        .forEach(interval -> loaded.insert(interval.getStart(), interval.getEnd(), interval.getId()));
+                tree = loaded;
+            } else {
+                tree.removeEnded(now);
+            }
+            return tree;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class CompletedBookingCache {
+
+    private static final int MAX_SIZE = 100_000;
+    private final Map<Key, Boolean> pairs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    public synchronized boolean contains(long bookerId, long itemId) {
+        return pairs.containsKey(new Key(bookerId, itemId));
+    }
+
+    public synchronized void add(long bookerId, long itemId) {
+        pairs.put(new Key(bookerId, itemId), Boolean.TRUE);
+    }
+
+    @Value
+    private static class Key {
+        long bookerId;
+        long itemId;
+    }
+}
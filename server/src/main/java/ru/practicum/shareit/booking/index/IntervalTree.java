@@ -0,0 +1,165 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class IntervalTree {
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && start.isBefore(node.end)) {
+                return true;
+            }
+            node = node.left != null && node.left.maxEnd.isAfter(start) ? node.left : node.right;
+        }
+        return false;
+    }
+
+    public boolean contains(LocalDateTime start, long id) {
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(start, id, node);
+            if (cmp == 0) {
+                return true;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    public void insert(LocalDateTime start, LocalDateTime end, long id) {
+        if (!contains(start, id)) {
+            root = insert(root, new Node(start, end, id));
+            size++;
+        }
+    }
+
+    public boolean remove(LocalDateTime start, long id) {
+        if (!contains(start, id)) {
+            return false;
+        }
+        root = remove(root, start, id);
+        size--;
+        return true;
+    }
+
+    public void removeEnded(LocalDateTime now) {
+        List<Node> ended = new ArrayList<>();
+        collectEnded(root, now, ended);
+        ended.forEach(node -> remove(node.start, node.id));
+    }
+
+    private void collectEnded(Node node, LocalDateTime now, List<Node> ended) {
+        if (node == null) {
+            return;
+        }
+        collectEnded(node.left, now, ended);
+        if (node.start.isBefore(now)) {
+            if (!node.end.isAfter(now)) {
+                ended.add(node);
+            }
+            collectEnded(node.right, now, ended);
+        }
+    }
+
+    private Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (compare(newNode.start, newNode.id, node) < 0) {
+            node.left = insert(node.left, newNode);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, newNode);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, LocalDateTime start, long id) {
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = remove(node.right, start, id);
+        } else {
+            node = rotateLeft(node);
+            node.left = remove(node.left, start, id);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private void update(Node node) {
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private int compare(LocalDateTime start, long id, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private static class Node {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long id;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(LocalDateTime start, LocalDateTime end, long id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -1,86 +1,94 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.TimeSlot;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
-    List<Booking> findAllByItemIdOrderByStartAsc(Long itemId);
-
-    List<Booking> findAllByItemIdOrderByStartDesc(Long itemId);
-
-    Page<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status, Pageable pageable);
-
-    Optional<Booking> findByIdAndItemOwnerId(Long id, Long ownerId);
-
-    @Query("select b" +
-            " from Booking as b " +
-            "where b.item.owner.id = ?1 and " +
-            "b.start > ?2 and " +
-            "b.end > ?2 " +
-            "order by b.start desc")
-    Page<Booking> findByOwnerAndDatesFuture(Long ownerId, LocalDateTime currentDate, Pageable pageable);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.item.id, b.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.item.id = ?1 and " +
+            "b.status in ?2 and " +
+            "b.end > ?3")
+    List<BookingInterval> findIntervalsByItemId(Long itemId, Collection<BookingStatus> statuses,
+                                                LocalDateTime endAfter);
 
-    @Query("select b" +
-            " from Booking as b " +
-            "where b.item.owner.id = ?1 and " +
-            "b.start < ?2 and " +
-            "b.end > ?2 " +
-            "order by b.start desc")
-    Page<Booking> findByOwnerAndDatesCurrent(Long ownerId, LocalDateTime currentDate, Pageable pageable);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.item.id, b.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.booker.id = ?1 and " +
+            "b.status in ?2 and " +
+            "b.end > ?3")
+    List<BookingInterval> findIntervalsByBookerId(Long bookerId, Collection<BookingStatus> statuses,
+                                                  LocalDateTime endAfter);
 
     @Query("select b " +
             "from Booking as b " +
-            "where b.item.owner.id = ?1 and " +
-            "b.start < ?2 and " +
-            "b.end < ?2 " +
-            "order by b.start desc")
-    Page<Booking> findByOwnerAndDatesPast(Long ownerId, LocalDateTime currentDate, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "order by b.id desc")
-    List<Booking> findAllByBookerId(Long bookerId);
+            "where b.item.id in ?1 and " +
+            "b.start = (select max(lb.start) from Booking as lb where lb.item.id = b.item.id and lb.start < ?2)")
+    List<Booking> findLastByItemIds(Collection<Long> itemIds, LocalDateTime currentDate);
 
     @Query("select b " +
             "from Booking as b " +
-            "where b.status <> 'REJECTED' and " +
-            "b.booker.id = ?1 and " +
-            "b.start > ?2 and " +
-            "b.end > ?2 " +
-            "order by b.start desc")
-    Page<Booking> findByBookerAndDatesFuture(Long bookerId, LocalDateTime currentDate, Pageable pageable);
+            "where b.item.id in ?1 and " +
+            "b.start = (select min(nb.start) from Booking as nb where nb.item.id = b.item.id and nb.start > ?2)")
+    List<Booking> findNextByItemIds(Collection<Long> itemIds, LocalDateTime currentDate);
 
-    @Query("select b " +
+    @Query("select new ru.practicum.shareit.item.dto.TimeSlot(b.start, b.end) " +
             "from Booking as b " +
-            "where b.booker.id = ?1 and " +
-            "b.start < ?2 and " +
+            "where b.item.id = ?1 and " +
+            "b.status in ?4 and " +
+            "b.start < ?3 and " +
             "b.end > ?2 " +
-            "order by b.start desc")
-    Page<Booking> findByBookerAndDatesCurrent(Long bookerId, LocalDateTime currentDate, Pageable pageable);
+            "order by b.start")
+    Stream<TimeSlot> streamBusySlots(Long itemId, LocalDateTime from, LocalDateTime to,
+                                     Collection<BookingStatus> statuses);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findByIdAndItemOwnerId(Long id, Long ownerId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.status = ?4 " +
+            "where b.id = ?1 and " +
+            "b.status = ?3 and " +
+            "b.item.id in (select i.id from Item as i where i.owner.id = ?2)")
+    int compareAndSetStatus(Long bookingId, Long ownerId, BookingStatus expected, BookingStatus status);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select b " +
             "from Booking as b " +
-            "where b.booker.id = ?1 and " +
-            "b.start < ?2 and " +
-            "b.end < ?2 " +
-            "order by b.start desc")
-    Page<Booking> findByBookerAndDatesPast(Long bookerId, LocalDateTime currentDate, Pageable pageable);
+            "where b.id in ?1 and " +
+            "b.item.id in (select i.id from Item as i where i.owner.id = ?2)")
+    List<Booking> findAllForDecision(Collection<Long> bookingIds, Long ownerId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.status = ?3 " +
+            "where b.id in ?1 and " +
+            "b.status = 'WAITING' and " +
+            "b.item.id in (select i.id from Item as i where i.owner.id = ?2)")
+    int updateWaitingStatus(Collection<Long> bookingIds, Long ownerId, BookingStatus status);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId, BookingStatus status,
+                                                           LocalDateTime end);
+
+    boolean existsByBookerIdAndItemIdAndEndBefore(Long bookerId, Long itemId, LocalDateTime end);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("select b " +
             "from Booking as b " +
             "where b.id = ?1 " +
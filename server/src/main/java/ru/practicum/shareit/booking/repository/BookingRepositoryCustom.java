@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    Slice<BookingFullDto> findAllByState(boolean isOwner, BookingState state, Long userId,
+                                         LocalDateTime currentDate, Pageable pageable);
+
+    List<BookingFullDto> findAllByState(boolean isOwner, BookingState state, Long userId, LocalDateTime currentDate,
+                                        KeysetCursor cursor, int limit);
+
+    long countByState(boolean isOwner, BookingState state, Long userId, LocalDateTime currentDate);
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    private static final String START_FIELD = "start";
+    private static final String END_FIELD = "end";
+    private static final String STATUS_FIELD = "status";
+    private static final String ID_FIELD = "id";
+    private static final String NAME_FIELD = "name";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<BookingFullDto> findAllByState(boolean isOwner, BookingState state, Long userId,
+                                                LocalDateTime currentDate, Pageable pageable) {
+        List<BookingFullDto> bookings = createQuery(isOwner, state, userId, currentDate, null)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = bookings.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? bookings.subList(0, pageable.getPageSize()) : bookings, pageable, hasNext);
+    }
+
+    @Override
+    public List<BookingFullDto> findAllByState(boolean isOwner, BookingState state, Long userId,
+                                               LocalDateTime currentDate, KeysetCursor cursor, int limit) {
+        return createQuery(isOwner, state, userId, currentDate, cursor)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countByState(boolean isOwner, BookingState state, Long userId, LocalDateTime currentDate) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<?, ?> item = isOwner ? booking.join("item") : null;
+
+        List<Predicate> predicates = getPredicates(cb, booking, item, isOwner, state, userId, currentDate);
+        query.select(cb.count(booking))
+                .where(predicates.toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private TypedQuery<BookingFullDto> createQuery(boolean isOwner, BookingState state, Long userId,
+                                                   LocalDateTime currentDate, KeysetCursor cursor) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingFullDto> query = cb.createQuery(BookingFullDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, ?> item = booking.join("item");
+        Join<Booking, ?> booker = booking.join("booker");
+
+        List<Predicate> predicates = getPredicates(cb, booking, item, isOwner, state, userId, currentDate);
+        if (cursor != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(booking.get(START_FIELD), cursor.getTimestamp()),
+                    cb.and(cb.equal(booking.get(START_FIELD), cursor.getTimestamp()),
+                            cb.lessThan(booking.get(ID_FIELD), cursor.getId()))));
+        }
+
+        query.select(cb.construct(BookingFullDto.class,
+                        booking.get(ID_FIELD), booking.get(START_FIELD), booking.get(END_FIELD),
+                        booking.get(STATUS_FIELD), booker.get(ID_FIELD), booker.get(NAME_FIELD),
+                        item.get(ID_FIELD), item.get(NAME_FIELD)))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get(START_FIELD)), cb.desc(booking.get(ID_FIELD)));
+        return entityManager.createQuery(query);
+    }
+
+    private List<Predicate> getPredicates(CriteriaBuilder cb, Root<Booking> booking, Join<?, ?> item,
+                                          boolean isOwner, BookingState state, Long userId,
+                                          LocalDateTime currentDate) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(isOwner ?
+                cb.equal(item.get("owner").get(ID_FIELD), userId) :
+                cb.equal(booking.get("booker").get(ID_FIELD), userId));
+        predicates.addAll(getStatePredicates(cb, booking, isOwner, state, currentDate));
+        return predicates;
+    }
+
+    private List<Predicate> getStatePredicates(CriteriaBuilder cb, Root<Booking> booking, boolean isOwner,
+                                               BookingState state, LocalDateTime currentDate) {
+        List<Predicate> predicates = new ArrayList<>();
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(booking.get(START_FIELD), currentDate));
+                predicates.add(cb.greaterThan(booking.get(END_FIELD), currentDate));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(booking.get(START_FIELD), currentDate));
+                predicates.add(cb.lessThan(booking.get(END_FIELD), currentDate));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(booking.get(START_FIELD), currentDate));
+                predicates.add(cb.greaterThan(booking.get(END_FIELD), currentDate));
+                if (!isOwner) {
+                    predicates.add(cb.notEqual(booking.get(STATUS_FIELD), BookingStatus.REJECTED));
+                }
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get(STATUS_FIELD), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get(STATUS_FIELD), BookingStatus.REJECTED));
+                break;
+            default:
+                break;
+        }
+        return predicates;
+    }
+}
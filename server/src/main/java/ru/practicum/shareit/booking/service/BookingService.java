@@ -1,16 +1,18 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -18,28 +20,33 @@ import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.error.ExceptionDescriptions.*;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingService implements BookingController {
 
-    private static final String START_FIELD = "start";
+    public static final int MAX_BATCH_SIZE = 500;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
-    private final Sort sort = Sort.by(Sort.Direction.DESC, START_FIELD);
+    private final BookingIntervalIndex bookingIntervalIndex;
 
     @Override
+    @Transactional
     public Optional<BookingFullDto> create(Long bookerId, BookingDto bookingDto) {
         Item item = itemRepository.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException(ITEM_NOT_FOUND.getTitle()));
@@ -51,24 +58,132 @@ public class BookingService implements BookingController {
             throw new NotFoundException(USER_RESERVE_OWN_ITEM.getTitle());
         }
 
-        User booker = userRepository.findById(bookerId)
+        User booker = userRepository.findCachedById(bookerId)
                 .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND.getTitle()));
-        Booking savedBooking = bookingRepository.save(
+        Booking savedBooking = bookingIntervalIndex.save(
                 bookingMapper.fromBookingDto(bookingDto, item, booker, BookingStatus.WAITING));
         return Optional.ofNullable(bookingMapper.toBookingFullDto(savedBooking));
     }
 
     @Override
+    @Transactional
+    public List<BookingBatchResultDto> createAll(Long bookerId, List<BookingDto> bookingDtos) {
+        if (bookingDtos == null || bookingDtos.isEmpty() || bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(INVALID_BATCH_SIZE.getTitle());
+        }
+        User booker = userRepository.findCachedById(bookerId)
+                .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND.getTitle()));
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<String> errors = new ArrayList<>(bookingDtos.size());
+        List<Booking> bookings = new ArrayList<>(bookingDtos.size());
+        for (BookingDto bookingDto : bookingDtos) {
+            Item item = items.get(bookingDto.getItemId());
+            String error = validateBatchEntry(bookingDto, item, bookerId);
+            errors.add(error);
+            bookings.add(error == null
+                    ? bookingMapper.fromBookingDto(bookingDto, item, booker, BookingStatus.WAITING)
+                    : null);
+        }
+
+        Set<Booking> savedBookings = Collections.newSetFromMap(new IdentityHashMap<>());
+        savedBookings.addAll(bookingIntervalIndex.saveAll(
+                bookings.stream().filter(Objects::nonNull).collect(Collectors.toList())));
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingDtos.size());
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            Booking booking = bookings.get(i);
+            if (booking != null && savedBookings.contains(booking)) {
+                results.add(BookingBatchResultDto.builder()
+                        .booking(bookingMapper.toBookingFullDto(booking))
+                        .build());
+            } else {
+                results.add(BookingBatchResultDto.builder()
+                        .error(booking == null ? errors.get(i) : BOOKING_DATES_OVERLAP.getTitle())
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional
     public Optional<BookingFullDto> confirmation(Long ownerId, Long bookingId, boolean approved) {
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.compareAndSetStatus(bookingId, ownerId, BookingStatus.WAITING, status) == 0) {
+            Booking booking = bookingRepository.findByIdAndItemOwnerId(bookingId, ownerId).orElseThrow(
+                    () -> new NotFoundException(BOOKING_NOT_FOUND.getTitle()));
+            throw new ValidationException(booking.getStatus() == BookingStatus.APPROVED
+                    ? BOOKING_ALREADY_CONFIRMED.getTitle() : BOOKING_NOT_WAITING.getTitle());
+        }
         Booking booking = bookingRepository.findByIdAndItemOwnerId(bookingId, ownerId).orElseThrow(
                 () -> new NotFoundException(BOOKING_NOT_FOUND.getTitle()));
+        if (!approved) {
+            bookingIntervalIndex.release(List.of(booking));
+        }
+        return Optional.ofNullable(bookingMapper.toBookingFullDto(booking));
+    }
 
-        if (booking.getStatus() == BookingStatus.APPROVED) {
-            throw new ValidationException(BOOKING_ALREADY_CONFIRMED.getTitle());
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> decide(Long ownerId, List<BookingDecisionDto> decisions) {
+        if (decisions == null || decisions.isEmpty() || decisions.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(INVALID_BATCH_SIZE.getTitle());
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        Booking savedBooking = bookingRepository.save(booking);
-        return Optional.ofNullable(bookingMapper.toBookingFullDto(savedBooking));
+        if (decisions.stream().anyMatch(decision -> decision == null || decision.getBookingId() == null
+                || decision.getApproved() == null)) {
+            throw new ValidationException(INVALID_DECISION.getTitle());
+        }
+        validationUser(ownerId);
+        Map<Long, Boolean> firstDecisions = new LinkedHashMap<>();
+        decisions.forEach(decision -> firstDecisions.putIfAbsent(decision.getBookingId(), decision.getApproved()));
+        Map<Long, Booking> bookings = bookingRepository.findAllForDecision(firstDecisions.keySet(), ownerId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<Long> approvedIds = new ArrayList<>();
+        List<Long> rejectedIds = new ArrayList<>();
+        List<Booking> rejectedBookings = new ArrayList<>();
+        firstDecisions.forEach((bookingId, approved) -> {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null || booking.getStatus() != BookingStatus.WAITING) {
+                return;
+            }
+            if (approved) {
+                approvedIds.add(bookingId);
+            } else {
+                rejectedIds.add(bookingId);
+                rejectedBookings.add(booking);
+            }
+        });
+        if (!approvedIds.isEmpty()) {
+            bookingRepository.updateWaitingStatus(approvedIds, ownerId, BookingStatus.APPROVED);
+        }
+        if (!rejectedIds.isEmpty()) {
+            bookingRepository.updateWaitingStatus(rejectedIds, ownerId, BookingStatus.REJECTED);
+            bookingIntervalIndex.release(rejectedBookings);
+        }
+
+        Set<Long> decidedIds = new HashSet<>();
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        for (BookingDecisionDto decision : decisions) {
+            Booking booking = bookings.get(decision.getBookingId());
+            BookingDecisionResultDto.BookingDecisionResultDtoBuilder result = BookingDecisionResultDto.builder()
+                    .bookingId(decision.getBookingId());
+            if (booking == null) {
+                result.error(BOOKING_NOT_FOUND.getTitle());
+            } else if (booking.getStatus() != BookingStatus.WAITING || !decidedIds.add(booking.getId())) {
+                result.error(BOOKING_NOT_WAITING.getTitle());
+            } else {
+                result.status(firstDecisions.get(booking.getId()) ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            }
+            results.add(result.build());
+        }
+        return results;
     }
 
     @Override
@@ -78,65 +193,75 @@ public class BookingService implements BookingController {
                         .orElseThrow(() -> new NotFoundException(BOOKING_NOT_FOUND.getTitle()))));
     }
 
-    @Override
     public List<BookingFullDto> getAllByBooker(Long bookerId, String stateBooking, int from, int size) {
         BookingState state = BookingState.valueOf(stateBooking);
         validationUser(bookerId);
-        return getBookings(false, state, bookerId, PageRequest.of(from / size, size, sort))
-                .stream()
-                .map(bookingMapper::toBookingFullDto)
-                .collect(Collectors.toList());
+        return bookingRepository.findAllByState(false, state, bookerId, LocalDateTime.now(),
+                PageRequest.of(from / size, size)).getContent();
     }
 
-    @Override
     public List<BookingFullDto> getAllByOwner(Long ownerId, String stateBooking, int from, int size) {
         BookingState state = BookingState.valueOf(stateBooking);
         validationUser(ownerId);
-        return getBookings(true, state, ownerId, PageRequest.of(from / size, size, sort))
-                .stream()
-                .map(bookingMapper::toBookingFullDto)
-                .collect(Collectors.toList());
+        return bookingRepository.findAllByState(true, state, ownerId, LocalDateTime.now(),
+                PageRequest.of(from / size, size)).getContent();
+    }
+
+    public KeysetPage<BookingFullDto> getAllByBookerAfter(Long bookerId, String stateBooking, String cursor, int size) {
+        BookingState state = BookingState.valueOf(stateBooking);
+        validationUser(bookerId);
+        return getBookingsAfter(false, state, bookerId, KeysetCursor.decode(cursor), size);
+    }
+
+    public KeysetPage<BookingFullDto> getAllByOwnerAfter(Long ownerId, String stateBooking, String cursor, int size) {
+        BookingState state = BookingState.valueOf(stateBooking);
+        validationUser(ownerId);
+        return getBookingsAfter(true, state, ownerId, KeysetCursor.decode(cursor), size);
+    }
+
+    public long countByBooker(Long bookerId, String stateBooking) {
+        BookingState state = BookingState.valueOf(stateBooking);
+        return bookingRepository.countByState(false, state, bookerId, LocalDateTime.now());
+    }
+
+    public long countByOwner(Long ownerId, String stateBooking) {
+        BookingState state = BookingState.valueOf(stateBooking);
+        return bookingRepository.countByState(true, state, ownerId, LocalDateTime.now());
+    }
+
+    private String validateBatchEntry(BookingDto bookingDto, Item item, Long bookerId) {
+        if (item == null) {
+            return ITEM_NOT_FOUND.getTitle();
+        }
+        if (!item.isAvailable()) {
+            return ITEM_UNAVAILABLE.getTitle();
+        }
+        if (item.getOwner().getId() == bookerId) {
+            return USER_RESERVE_OWN_ITEM.getTitle();
+        }
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null
+                || !bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+            return BOOKING_START_DATE_LATER_END_DATE.getTitle();
+        }
+        return null;
     }
 
     private void validationUser(Long userId) {
-        if (userRepository.findById(userId).isEmpty()) {
+        if (userRepository.findCachedById(userId).isEmpty()) {
             throw new NotFoundException(USER_NOT_FOUND.getTitle());
         }
     }
 
-    private Page<Booking> getBookings(boolean isOwner, BookingState state, Long userId, Pageable pageable) {
-        Page<Booking> bookings;
-        switch (state) {
-            case CURRENT:
-                bookings = isOwner ? bookingRepository
-                        .findByOwnerAndDatesCurrent(userId, LocalDateTime.now(), pageable) :
-                        bookingRepository.findByBookerAndDatesCurrent(userId, LocalDateTime.now(), pageable);
-                break;
-            case PAST:
-                bookings = isOwner ? bookingRepository.findByOwnerAndDatesPast(userId, LocalDateTime.now(), pageable) :
-                        bookingRepository.findByBookerAndDatesPast(userId, LocalDateTime.now(), pageable);
-                break;
-            case REJECTED:
-                bookings = isOwner ? bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId,
-                        BookingStatus.REJECTED, pageable) :
-                        bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId,
-                                BookingStatus.REJECTED, pageable);
-                break;
-            case WAITING:
-                bookings = isOwner ? bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId,
-                        BookingStatus.WAITING, pageable) :
-                        bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId,
-                                BookingStatus.WAITING, pageable);
-                break;
-            case FUTURE:
-                bookings = isOwner ? bookingRepository
-                        .findByOwnerAndDatesFuture(userId, LocalDateTime.now(), pageable) :
-                        bookingRepository.findByBookerAndDatesFuture(userId, LocalDateTime.now(), pageable);
-                break;
-            default:
-                bookings = isOwner ? bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, pageable) :
-                        bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pageable);
-        }
-        return bookings;
+    private KeysetPage<BookingFullDto> getBookingsAfter(boolean isOwner, BookingState state, Long userId,
+                                                        KeysetCursor cursor, int size) {
+        List<BookingFullDto> bookings = bookingRepository.findAllByState(isOwner, state, userId,
+                LocalDateTime.now(), cursor, size + 1);
+        String nextCursor = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            BookingFullDto last = bookings.get(size - 1);
+            nextCursor = new KeysetCursor(last.getStart(), last.getId()).encode();
+        }
+        return new KeysetPage<>(bookings, nextCursor);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+
+import static ru.practicum.shareit.config.TransactionCallbacks.afterCompletion;
+
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictUserCascade(Collection<Long> itemIds, Collection<Long> requestIds) {
+        List<Long> items = List.copyOf(itemIds);
+        List<Long> requests = List.copyOf(requestIds);
+        evictItemsAndRequests(items, requests);
+        afterCompletion(committed -> evictItemsAndRequests(items, requests));
+    }
+
+    private void evictItemsAndRequests(List<Long> itemIds, List<Long> requestIds) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        itemIds.forEach(id -> cache.evictEntityData(Item.class, id));
+        requestIds.forEach(id -> cache.evictEntityData(ItemRequest.class, id));
+        if (!itemIds.isEmpty()) {
+            cache.evictQueryRegion(Item.BY_REQUEST_CACHE_REGION);
+        }
+    }
+}
@@ -20,7 +20,13 @@ public enum ExceptionDescriptions {
     FORBIDDEN_TO_ADD_COMMENTS("Forbidden to add comments"),
     UNKNOWN_STATE("Unknown state: UNSUPPORTED_STATUS"),
     FROM_OR_SIZE_LESS_THAN_ZERO("From or size less than zero"),
-    ITEM_REQUEST_NOT_FOUND("Item request not found");
+    ITEM_REQUEST_NOT_FOUND("Item request not found"),
+    INVALID_CURSOR("Invalid cursor"),
+    BOOKING_DATES_OVERLAP("Booking dates overlap an existing booking"),
+    INVALID_TIME_WINDOW("Window start must be earlier than its end"),
+    BOOKING_NOT_WAITING("Booking is not waiting for a decision"),
+    INVALID_BATCH_SIZE("Batch must contain from 1 to 500 entries"),
+    INVALID_DECISION("Decision must contain a booking id and an approved flag");
 
     private final String title;
 
@@ -1,12 +1,17 @@
 package ru.practicum.shareit.item.controller.impl;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.controller.ItemCrudController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentFullDto;
 import ru.practicum.shareit.item.dto.ItemFullDto;
+import ru.practicum.shareit.item.dto.TimeSlot;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
+import ru.practicum.shareit.pagination.PageHeaders;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,14 +25,16 @@ public class ItemControllerImpl implements ItemCrudController<ItemFullDto> {
         this.itemService = userService;
     }
 
-    @Override
     @GetMapping
-    public List<ItemFullDto> findAll(@RequestHeader("X-Sharer-User-Id") long userId,
-                                     @RequestParam(value = "from", required = false, defaultValue = "0")
-                                     int from,
-                                     @RequestParam(value = "size", required = false, defaultValue = "10")
-                                         int size) {
-        return itemService.findAll(userId, from, size);
+    public ResponseEntity<List<ItemFullDto>> findAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                     @RequestParam(value = "from", required = false,
+                                                             defaultValue = "0") int from,
+                                                     @RequestParam(value = "size", required = false,
+                                                             defaultValue = "10") int size,
+                                                     @RequestParam(value = "withTotal", required = false,
+                                                             defaultValue = "false") boolean withTotal) {
+        List<ItemFullDto> items = itemService.findAll(userId, from, size);
+        return toResponse(items, withTotal ? itemService.countAll(userId) : null);
     }
 
     @Override
@@ -37,6 +44,15 @@ public class ItemControllerImpl implements ItemCrudController<ItemFullDto> {
         return itemService.findById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<TimeSlot> findAvailability(@PathVariable("itemId") long itemId,
+                                           @RequestParam("from")
+                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                           @RequestParam("to")
+                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.findAvailability(itemId, from, to);
+    }
+
     @Override
     @PostMapping
     public Optional<ItemFullDto> save(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -60,12 +76,15 @@ public class ItemControllerImpl implements ItemCrudController<ItemFullDto> {
     }
 
     @GetMapping("/search")
-    public List<ItemFullDto> search(@RequestParam(value = "text") String text,
-                                @RequestParam(value = "from", required = false, defaultValue = "0")
-                                    int from,
-                                @RequestParam(value = "size", required = false, defaultValue = "10")
-                                        int size) {
-        return itemService.search(text, from, size);
+    public ResponseEntity<List<ItemFullDto>> search(@RequestParam(value = "text") String text,
+                                                    @RequestParam(value = "from", required = false,
+                                                            defaultValue = "0") int from,
+                                                    @RequestParam(value = "size", required = false,
+                                                            defaultValue = "10") int size,
+                                                    @RequestParam(value = "withTotal", required = false,
+                                                            defaultValue = "false") boolean withTotal) {
+        List<ItemFullDto> items = itemService.search(text, from, size);
+        return toResponse(items, withTotal ? itemService.countSearch(text) : null);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -73,4 +92,12 @@ public class ItemControllerImpl implements ItemCrudController<ItemFullDto> {
                                      @RequestBody CommentDto commentDto) {
         return itemService.addComment(authorId, itemId, commentDto);
     }
+
+    private ResponseEntity<List<ItemFullDto>> toResponse(List<ItemFullDto> items, Long total) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (total != null) {
+            response.header(PageHeaders.TOTAL_COUNT, String.valueOf(total));
+        }
+        return response.body(items);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ItemSearchText {
+    private long id;
+    private String name;
+    private String description;
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemSearchText;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static ru.practicum.shareit.config.TransactionCallbacks.afterCommit;
+
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, Document> documents = new TreeMap<>();
+    private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            itemRepository.findAllSearchTexts().forEach(this::add);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(long itemId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(itemId);
+                itemRepository.findSearchTextById(itemId).ifPresent(this::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(long itemId) {
+        removeAll(List.of(itemId));
+    }
+
+    public void removeAll(Collection<Long> itemIds) {
+        List<Long> ids = List.copyOf(itemIds);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                ids.forEach(this::delete);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public boolean supports(String text) {
+        return ready && normalize(text).length() >= GRAM_LENGTH && text.indexOf('%') < 0 && text.indexOf('_') < 0;
+    }
+
+    public List<Long> search(String text) {
+        String query = normalize(text);
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(query)) {
+                if (documents.get(id).contains(query)) {
+                    ids.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    private Collection<Long> candidates(String query) {
+        NavigableSet<Long> smallest = null;
+        for (String gram : trigrams(query)) {
+            NavigableSet<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        return smallest == null ? List.of() : smallest;
+    }
+
+    private void add(ItemSearchText item) {
+        Document document = new Document(normalize(item.getName()), normalize(item.getDescription()));
+        documents.put(item.getId(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, g -> new TreeSet<>()).add(item.getId());
+        }
+    }
+
+    private void delete(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            NavigableSet<Long> posting = postings.get(gram);
+            posting.remove(itemId);
+            if (posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static class Document {
+        private final String name;
+        private final String description;
+
+        Document(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = trigrams(name);
+            grams.addAll(trigrams(description));
+            return grams;
+        }
+    }
+}
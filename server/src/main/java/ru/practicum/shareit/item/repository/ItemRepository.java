@@ -1,21 +1,55 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemSearchText;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = Item.BY_REQUEST_CACHE_REGION)
+    })
     List<Item> findAllByRequestId(Long requestId);
 
-    Page<Item> findAllByOwnerId(Long ownerId, Pageable pageable);
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemSearchText(i.id, i.name, i.description) " +
+            "from Item as i " +
+            "where i.available = true")
+    List<ItemSearchText> findAllSearchTexts();
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemSearchText(i.id, i.name, i.description) " +
+            "from Item as i " +
+            "where i.id = ?1 and i.available = true")
+    Optional<ItemSearchText> findSearchTextById(Long id);
+
+    @Query("select i.id from Item as i left join i.request as r where i.owner.id = ?1 or r.requestor.id = ?1")
+    List<Long> findIdsDeletedWithUser(Long userId);
+
+    Slice<Item> findAllByOwnerId(Long ownerId, Pageable pageable);
+
+    long countByOwnerId(Long ownerId);
 
     @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%'))")
-    Page<Item> search(String text, Pageable pageable);
+            "where i.available = true " +
+            " and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "order by i.id")
+    Slice<Item> search(String text, Pageable pageable);
+
+    @Query(" select count(i) from Item i " +
+            "where i.available = true " +
+            " and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%')))")
+    long countSearch(String text);
 }
\ No newline at end of file
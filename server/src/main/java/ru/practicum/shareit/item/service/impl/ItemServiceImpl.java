@@ -3,7 +3,10 @@ package ru.practicum.shareit.item.service.impl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.CompletedBookingCache;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -12,6 +15,8 @@ import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentFullDto;
 import ru.practicum.shareit.item.dto.ItemFullDto;
+import ru.practicum.shareit.item.dto.TimeSlot;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -24,15 +29,20 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.error.ExceptionDescriptions.*;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemCrudService<ItemFullDto> {
 
     private final ItemRepository itemRepository;
@@ -43,8 +53,10 @@ public class ItemServiceImpl implements ItemCrudService<ItemFullDto> {
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final BookingMapper bookingMapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemSearchIndex itemSearchIndex;
+    private final CompletedBookingCache completedBookingCache;
 
-    @Override
     public List<ItemFullDto> findAll(long userId, int from, int size) {
         List<ItemFullDto> itemDtoList = itemRepository.findAllByOwnerId(
                         userId, PageRequest.of(from / size, size))
@@ -52,10 +64,8 @@ public class ItemServiceImpl implements ItemCrudService<ItemFullDto> {
                 .map(itemMapper::toItemFullDto)
                 .sorted(Comparator.comparing(ItemFullDto::getId))
                 .collect(Collectors.toList());
-        for (ItemFullDto itemDto : itemDtoList) {
-            setLastAndNextBooking(itemDto);
-            setComments(itemDto, itemDto.getId());
-        }
+        setLastAndNextBookings(itemDtoList);
+        setComments(itemDtoList);
         return itemDtoList;
     }
 
@@ -64,19 +74,18 @@ public class ItemServiceImpl implements ItemCrudService<ItemFullDto> {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(ITEM_NOT_FOUND.getTitle()));
         ItemFullDto itemDto = itemMapper.toItemFullDto(item);
-        setComments(itemDto, itemId);
+        setComments(List.of(itemDto));
         if (item.getOwner().getId() == ownerId) {
-            setLastAndNextBooking(itemDto);
+            setLastAndNextBookings(List.of(itemDto));
         }
         return Optional.of(itemDto);
     }
 
     @Override
+    @Transactional
     public Optional<ItemFullDto> save(long userId, ItemFullDto itemDto) {
-        if (userRepository.findById(userId).isEmpty()) {
-            throw new NotFoundException(USER_NOT_FOUND.getTitle());
-        }
-        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException(USER_NOT_FOUND.getTitle()));
+        User user = userRepository.findCachedById(userId)
+                .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND.getTitle()));
         itemDto.setOwner(user);
         Item item = itemMapper.fromItemDto(itemDto);
         if (itemDto.getRequestId() != null) {
@@ -84,10 +93,13 @@ public class ItemServiceImpl implements ItemCrudService<ItemFullDto> {
                     .orElseThrow(() -> new NotFoundException(ITEM_REQUEST_NOT_FOUND.getTitle()));
             item.setRequest(itemRequest);
         }
-        return Optional.ofNullable(itemMapper.toItemFullDto(itemRepository.save(item)));
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem.getId());
+        return Optional.ofNullable(itemMapper.toItemFullDto(savedItem));
     }
 
     @Override
+    @Transactional
     public Optional<ItemFullDto> update(long userId, long itemId, ItemFullDto itemDto) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(ITEM_NOT_FOUND.getTitle()));
@@ -97,54 +109,141 @@ public class ItemServiceImpl implements ItemCrudService<ItemFullDto> {
         Optional.ofNullable(itemDto.getName()).ifPresent(item::setName);
         Optional.ofNullable(itemDto.getDescription()).ifPresent(item::setDescription);
         Optional.ofNullable(itemDto.getAvailable()).ifPresent(item::setAvailable);
-        return Optional.ofNullable(itemMapper.toItemFullDto(Optional.of(itemRepository.save(item))
-                .orElseThrow((() -> new NotFoundException(ITEM_NOT_FOUND.getTitle())))));
+        Item savedItem = Optional.of(itemRepository.save(item))
+                .orElseThrow((() -> new NotFoundException(ITEM_NOT_FOUND.getTitle())));
+        itemSearchIndex.index(savedItem.getId());
+        return Optional.ofNullable(itemMapper.toItemFullDto(savedItem));
     }
 
     @Override
+    @Transactional
     public void delete(long userId, long itemId) {
         Optional<Item> item = itemRepository.findById(itemId);
         if (item.isPresent() && item.get().getOwner().getId() == userId) {
             itemRepository.delete(item.get());
+            bookingIntervalIndex.evict(itemId);
+            itemSearchIndex.remove(itemId);
         }
     }
 
     public List<ItemFullDto> search(String text, int from, int size) {
-        return itemRepository.search(text, PageRequest.of(from / size, size))
-                .stream()
-                .filter(Item::isAvailable)
+        List<Item> items;
+        if (itemSearchIndex.supports(text)) {
+            List<Long> ids = itemSearchIndex.search(text);
+            int offset = Math.min(from / size * size, ids.size());
+            items = itemRepository.findAllById(ids.subList(offset, Math.min(offset + size, ids.size())))
+                    .stream()
+                    .sorted(Comparator.comparing(Item::getId))
+                    .collect(Collectors.toList());
+        } else {
+            items = itemRepository.search(text, PageRequest.of(from / size, size)).getContent();
+        }
+        return items.stream()
                 .map(itemMapper::toItemFullDto)
                 .collect(Collectors.toList());
     }
 
+    public long countAll(long userId) {
+        return itemRepository.countByOwnerId(userId);
+    }
+
+    public long countSearch(String text) {
+        if (itemSearchIndex.supports(text)) {
+            return itemSearchIndex.search(text).size();
+        }
+        return itemRepository.countSearch(text);
+    }
+
+    public List<TimeSlot> findAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException(INVALID_TIME_WINDOW.getTitle());
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException(ITEM_NOT_FOUND.getTitle());
+        }
+        List<TimeSlot> freeSlots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        try (Stream<TimeSlot> busySlots = bookingRepository.streamBusySlots(itemId, from, to,
+                BookingStatus.ACTIVE_STATUSES)) {
+            for (TimeSlot busy : (Iterable<TimeSlot>) busySlots::iterator) {
+                if (busy.getStart().isAfter(freeFrom)) {
+                    freeSlots.add(new TimeSlot(freeFrom, busy.getStart()));
+                }
+                if (busy.getEnd().isAfter(freeFrom)) {
+                    freeFrom = busy.getEnd();
+                }
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            freeSlots.add(new TimeSlot(freeFrom, to));
+        }
+        return freeSlots;
+    }
+
+    @Transactional
     public CommentFullDto addComment(long authorId, Long itemId, CommentDto dto) {
-        Booking booking = bookingRepository.findAllByBookerId(authorId).stream()
-                .filter(b -> b.getItem().getId() == itemId)
-                .filter(b -> b.getEnd().isBefore(LocalDateTime.now()))
-                .findFirst()
-                .orElseThrow(() -> new ValidationException(NO_MATCHING_BOOKINGS.getTitle()));
-        if (booking.getStatus() == BookingStatus.APPROVED) {
-            User author = userRepository.findById(authorId)
-                    .orElseThrow(() -> new ValidationException(USER_NOT_FOUND.getTitle()));
-            Item item = itemRepository.findById(itemId)
-                    .orElseThrow(() -> new ValidationException(ITEM_NOT_FOUND.getTitle()));
-            return commentMapper.toCommentFullDto(commentRepository.save(commentMapper.fromCommentDto(dto, item, author)));
-        } else {
+        checkCanComment(authorId, itemId);
+        User author = userRepository.findCachedById(authorId)
+                .orElseThrow(() -> new ValidationException(USER_NOT_FOUND.getTitle()));
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new ValidationException(ITEM_NOT_FOUND.getTitle()));
+        return commentMapper.toCommentFullDto(commentRepository.save(commentMapper.fromCommentDto(dto, item, author)));
+    }
+
+    private void checkCanComment(long authorId, long itemId) {
+        if (completedBookingCache.contains(authorId, itemId)) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(authorId, itemId,
+                BookingStatus.APPROVED, now)) {
+            completedBookingCache.add(authorId, itemId);
+            return;
+        }
+        if (bookingRepository.existsByBookerIdAndItemIdAndEndBefore(authorId, itemId, now)) {
             throw new ValidationException(FORBIDDEN_TO_ADD_COMMENTS.getTitle());
         }
+        throw new ValidationException(NO_MATCHING_BOOKINGS.getTitle());
     }
 
-    private void setLastAndNextBooking(ItemFullDto itemDto) {
-        List<Booking> lastBooking = bookingRepository.findAllByItemIdOrderByStartAsc(itemDto.getId());
-        List<Booking> nextBooking = bookingRepository.findAllByItemIdOrderByStartDesc(itemDto.getId());
-        itemDto.setLastBooking(lastBooking.isEmpty() ? null : bookingMapper.toBookingShortDto(lastBooking.get(0)));
-        itemDto.setNextBooking(itemDto.getLastBooking() == null ? null : bookingMapper.toBookingShortDto(nextBooking.get(0)));
+    private void setLastAndNextBookings(List<ItemFullDto> itemDtoList) {
+        if (itemDtoList.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = getIds(itemDtoList);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = groupByItem(bookingRepository.findLastByItemIds(itemIds, now));
+        Map<Long, Booking> nextBookings = groupByItem(bookingRepository.findNextByItemIds(itemIds, now));
+        for (ItemFullDto itemDto : itemDtoList) {
+            Booking lastBooking = lastBookings.get(itemDto.getId());
+            Booking nextBooking = nextBookings.get(itemDto.getId());
+            itemDto.setLastBooking(lastBooking == null ? null : bookingMapper.toBookingShortDto(lastBooking));
+            itemDto.setNextBooking(nextBooking == null ? null : bookingMapper.toBookingShortDto(nextBooking));
+        }
     }
 
-    private void setComments(ItemFullDto itemDto, long itemId) {
-        itemDto.setComments(commentRepository.findAllByItemId(itemId)
+    private Map<Long, Booking> groupByItem(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
+    }
+
+    private void setComments(List<ItemFullDto> itemDtoList) {
+        if (itemDtoList.isEmpty()) {
+            return;
+        }
+        Map<Long, List<CommentFullDto>> commentsByItem = commentRepository.findAllByItemIdIn(getIds(itemDtoList))
                 .stream()
-                .map(commentMapper::toCommentFullDto)
-                .collect(Collectors.toList()));
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toCommentFullDto, Collectors.toList())));
+        for (ItemFullDto itemDto : itemDtoList) {
+            itemDto.setComments(commentsByItem.getOrDefault(itemDto.getId(), List.of()));
+        }
+    }
+
+    private List<Long> getIds(List<ItemFullDto> itemDtoList) {
+        return itemDtoList.stream()
+                .map(ItemFullDto::getId)
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
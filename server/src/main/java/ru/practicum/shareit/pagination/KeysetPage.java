@@ -0,0 +1,13 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+}
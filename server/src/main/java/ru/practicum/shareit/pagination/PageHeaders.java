@@ -0,0 +1,9 @@
+package ru.practicum.shareit.pagination;
+
+public final class PageHeaders {
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+    public static final String TOTAL_COUNT = "X-Total-Count";
+
+    private PageHeaders() {
+    }
+}
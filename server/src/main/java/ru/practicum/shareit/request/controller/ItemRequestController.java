@@ -1,6 +1,9 @@
 package ru.practicum.shareit.request.controller;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.pagination.PageHeaders;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -22,14 +25,35 @@ public class ItemRequestController {
         return itemRequestService.findAllByOwner(userId);
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<ItemRequestDto>> findAllByOwnerAfter(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", required = false, defaultValue = "10")
+            int size) {
+        KeysetPage<ItemRequestDto> page = itemRequestService.findAllByOwnerAfter(userId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(PageHeaders.NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
+
     @GetMapping("/all")
-    public List<ItemRequestDto> findAllByAnotherUser(
+    public ResponseEntity<List<ItemRequestDto>> findAllByAnotherUser(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(value = "from", required = false, defaultValue = "0")
             int from,
             @RequestParam(value = "size", required = false, defaultValue = "10")
-            int size) {
-        return itemRequestService.findAllByAnotherUser(userId, from, size);
+            int size,
+            @RequestParam(value = "withTotal", required = false, defaultValue = "false")
+            boolean withTotal) {
+        List<ItemRequestDto> itemRequests = itemRequestService.findAllByAnotherUser(userId, from, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (withTotal) {
+            response.header(PageHeaders.TOTAL_COUNT, String.valueOf(itemRequestService.countAllByAnotherUser(userId)));
+        }
+        return response.body(itemRequests);
     }
 
     @GetMapping("/{requestId}")
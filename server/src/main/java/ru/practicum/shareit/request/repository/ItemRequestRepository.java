@@ -1,16 +1,31 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequestorId(Long requestorId);
 
-    Page<ItemRequest> findAllByRequestorIsNot(User user, Pageable pageable);
+    @Query("select r.id from ItemRequest as r where r.requestor.id = ?1")
+    List<Long> findIdsByRequestorId(Long requestorId);
+
+    List<ItemRequest> findAllByRequestorIdOrderByCreatedDescIdDesc(Long requestorId, Pageable pageable);
+
+    @Query("select r from ItemRequest as r " +
+            "where r.requestor.id = ?1 and " +
+            "(r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findAllByRequestorIdAfter(Long requestorId, LocalDateTime created, Long id, Pageable pageable);
+
+    Slice<ItemRequest> findAllByRequestorIsNot(User user, Pageable pageable);
+
+    long countByRequestorIdNot(Long requestorId);
 }
\ No newline at end of file
@@ -4,10 +4,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -16,6 +20,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -23,6 +28,7 @@ import static ru.practicum.shareit.error.ExceptionDescriptions.*;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
@@ -41,6 +47,27 @@ public class ItemRequestService {
         return itemRequests;
     }
 
+    public KeysetPage<ItemRequestDto> findAllByOwnerAfter(long userId, String cursor, int size) {
+        validateUser(userId);
+        KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<ItemRequest> requests = keysetCursor == null
+                ? itemRequestRepository.findAllByRequestorIdOrderByCreatedDescIdDesc(userId, limit)
+                : itemRequestRepository.findAllByRequestorIdAfter(userId, keysetCursor.getTimestamp(),
+                keysetCursor.getId(), limit);
+        String nextCursor = null;
+        if (requests.size() > size) {
+            requests = requests.subList(0, size);
+            ItemRequest last = requests.get(size - 1);
+            nextCursor = new KeysetCursor(last.getCreated(), last.getId()).encode();
+        }
+        List<ItemRequestDto> itemRequests = requests.stream()
+                .map(itemRequestMapper::toItemRequestDto)
+                .collect(Collectors.toList());
+        setItems(itemRequests);
+        return new KeysetPage<>(itemRequests, nextCursor);
+    }
+
     public List<ItemRequestDto> findAllByAnotherUser(long userId, int from, int size) {
         User user = getValidUser(userId);
         List<ItemRequestDto> itemRequests = itemRequestRepository
@@ -54,6 +81,10 @@ public class ItemRequestService {
 
     }
 
+    public long countAllByAnotherUser(long userId) {
+        return itemRequestRepository.countByRequestorIdNot(userId);
+    }
+
     public Optional<ItemRequestDto> findById(long userId, long requestId) {
         validateUser(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(
@@ -67,6 +98,7 @@ public class ItemRequestService {
         return Optional.of(itemRequestDto);
     }
 
+    @Transactional
     public Optional<ItemRequestDto> save(long userId, ItemRequestDto itemRequestDto) {
         User user = getValidUser(userId);
         return Optional.ofNullable(itemRequestMapper.toItemRequestDto(
@@ -74,21 +106,28 @@ public class ItemRequestService {
     }
 
     private void validateUser(long userId) {
-        if (userRepository.findById(userId).isEmpty()) {
+        if (userRepository.findCachedById(userId).isEmpty()) {
             throw new NotFoundException(USER_NOT_FOUND.getTitle());
         }
     }
 
     private User getValidUser(long userId) {
-        return userRepository.findById(userId).orElseThrow(() -> new NotFoundException(USER_NOT_FOUND.getTitle()));
+        return userRepository.findCachedById(userId).orElseThrow(() -> new NotFoundException(USER_NOT_FOUND.getTitle()));
     }
 
     private void setItems(List<ItemRequestDto> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemShortDto>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(itemMapper::toItemShortDto, Collectors.toList())));
         for (ItemRequestDto itemRequestDto : itemRequests) {
-            itemRequestDto.setItems(itemRepository.findAllByRequestId(itemRequestDto.getId())
-                    .stream()
-                    .map(itemMapper::toItemShortDto)
-                    .collect(Collectors.toList()));
+            itemRequestDto.setItems(itemsByRequest.getOrDefault(itemRequestDto.getId(), List.of()));
         }
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,16 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Optional;
+
 public interface UserRepository extends JpaRepository<User, Long> {
-}
\ No newline at end of file
+
+    @Cacheable(cacheNames = CacheConfig.USERS, unless = "#result == null")
+    @Query("select u from User as u where u.id = ?1")
+    Optional<User> findCachedById(Long id);
+}
@@ -1,7 +1,15 @@
 package ru.practicum.shareit.user.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.config.SecondLevelCacheEvictor;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -17,10 +25,16 @@ import static ru.practicum.shareit.error.ExceptionDescriptions.*;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserCrudService<UserDto> {
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
     private final UserMapper userMapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemSearchIndex itemSearchIndex;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
 
     @Override
     public List<UserDto> findAll() {
@@ -32,17 +46,20 @@ public class UserServiceImpl implements UserCrudService<UserDto> {
 
     @Override
     public Optional<UserDto> findById(long userId) {
-        return Optional.ofNullable(userMapper.toUserDto(userRepository.findById(userId)
+        return Optional.ofNullable(userMapper.toUserDto(userRepository.findCachedById(userId)
                 .orElseThrow((() -> new NotFoundException(USER_NOT_FOUND.getTitle())))));
     }
 
     @Override
+    @Transactional
     public Optional<UserDto> save(UserDto userDto) {
         User user = userRepository.save(userMapper.fromUserDto(userDto));
         return Optional.ofNullable(userMapper.toUserDto(user));
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public Optional<UserDto> update(long userId, UserDto userDto) {
         User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException(USER_NOT_FOUND.getTitle()));
         if (userDto.getName() != null) {
@@ -56,8 +73,18 @@ public class UserServiceImpl implements UserCrudService<UserDto> {
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public void delete(long userId) {
         Optional<User> user = userRepository.findById(userId);
-        user.ifPresent(userRepository::delete);
+        if (user.isPresent()) {
+            List<Long> itemIds = itemRepository.findIdsDeletedWithUser(userId);
+            List<Long> requestIds = itemRequestRepository.findIdsByRequestorId(userId);
+            bookingIntervalIndex.releaseBooker(userId);
+            userRepository.delete(user.get());
+            secondLevelCacheEvictor.evictUserCascade(itemIds, requestIds);
+            bookingIntervalIndex.evictAll(itemIds);
+            itemSearchIndex.removeAll(itemIds);
+        }
     }
 }
\ No newline at end of file
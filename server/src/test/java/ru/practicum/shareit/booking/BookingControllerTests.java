@@ -9,11 +9,15 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
@@ -93,6 +97,45 @@ class BookingControllerTests {
                 .andExpect(jsonPath("$.status", is(bookingFullDto.getStatus().toString())));
     }
 
+    @Test
+    void createAll_shouldReturnResultPerEntry() throws Exception {
+        when(bookingService.createAll(anyLong(), anyList())).thenReturn(List.of(
+                BookingBatchResultDto.builder().booking(bookingFullDto).build(),
+                BookingBatchResultDto.builder().error("Item not found").build()));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(List.of(bookingDto, bookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HEADER_USER_ID, ID_2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingFullDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].error", is("Item not found")));
+    }
+
+    @Test
+    void decide_shouldReturnOutcomePerBooking() throws Exception {
+        when(bookingService.decide(anyLong(), anyList())).thenReturn(List.of(
+                BookingDecisionResultDto.builder().bookingId(ID_1).status(BookingStatus.APPROVED).build(),
+                BookingDecisionResultDto.builder().bookingId(ID_2).error("Booking not found").build()));
+
+        mockMvc.perform(patch("/bookings/owner/decisions")
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new BookingDecisionDto(ID_1, true), new BookingDecisionDto(ID_2, false))))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HEADER_USER_ID, ID_1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].bookingId", is(ID_1), Long.class))
+                .andExpect(jsonPath("$[0].status", is(BookingStatus.APPROVED.toString())))
+                .andExpect(jsonPath("$[1].error", is("Booking not found")));
+    }
+
     @Test
     void confirmation_shouldConfirmBooking() throws Exception {
         bookingFullDto.setStatus(BookingStatus.APPROVED);
@@ -192,4 +235,18 @@ class BookingControllerTests {
                 .andExpect(jsonPath("$.[0].item.name", is(item.getName())))
                 .andExpect(jsonPath("$.[0].status", is(bookingFullDto.getStatus().toString())));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllByOwnerAfter_shouldReturnNextCursorHeader() throws Exception {
+        when(bookingService.getAllByOwnerAfter(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(new KeysetPage<>(List.of(bookingFullDto), "nextCursor"));
+
+        mockMvc.perform(get("/bookings/owner?cursor=&size=1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HEADER_USER_ID, ID_1))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "nextCursor"))
+                .andExpect(jsonPath("$.[0].id", is(bookingFullDto.getId()), Long.class));
+    }
+}
@@ -5,10 +5,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
@@ -17,7 +22,9 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.impl.UserServiceImpl;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +40,7 @@ class BookingIntegrationTests {
 
     private static final long OWNER_ID = 1L;
     private static final long BOOKER_ID = 2L;
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
     private final User owner = User.builder()
             .name("userName1")
             .email("mail1@ya.ru").build();
@@ -46,13 +54,13 @@ class BookingIntegrationTests {
             .owner(owner).build();
     private final BookingDto booking1 = BookingDto.builder()
             .itemId(1L)
-            .start(LocalDateTime.of(2022, 11, 5, 1, 1))
-            .end(LocalDateTime.of(2022, 11, 7, 1, 1))
+            .start(START)
+            .end(START.plusDays(2))
             .build();
     private final BookingDto booking2 = BookingDto.builder()
             .itemId(1L)
-            .start(LocalDateTime.of(2022, 11, 5, 1, 1).plusHours(1))
-            .end(LocalDateTime.of(2022, 11, 7, 1, 1).plusHours(2))
+            .start(START.plusDays(2).plusHours(1))
+            .end(START.plusDays(4).plusHours(2))
             .build();
 
     @Test
@@ -77,4 +85,71 @@ class BookingIntegrationTests {
         assertEquals(bookingFullDto2.get().getStart(), bookings.stream().findFirst().get().getStart());
         assertEquals(bookingFullDto2.get().getEnd(), bookings.stream().findFirst().get().getEnd());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void create_shouldRejectBookingOverlappingWaitingBooking() {
+        userService.save(userMapper.toUserDto(owner));
+        userService.save(userMapper.toUserDto(booker));
+        itemService.save(OWNER_ID, itemMapper.toItemFullDto(item));
+        bookingService.create(BOOKER_ID, booking1);
+        BookingDto overlapping = BookingDto.builder()
+                .itemId(1L)
+                .start(booking1.getStart().plusHours(1))
+                .end(booking1.getEnd().plusHours(1))
+                .build();
+
+        assertThrows(ValidationException.class, () -> bookingService.create(BOOKER_ID, overlapping));
+
+        bookingService.confirmation(OWNER_ID, 1L, false);
+        Optional<BookingFullDto> created = bookingService.create(BOOKER_ID, overlapping);
+        assertTrue(created.isPresent());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void createAll_shouldSaveNonOverlappingBookingsAndReportTheRest() {
+        userService.save(userMapper.toUserDto(owner));
+        userService.save(userMapper.toUserDto(booker));
+        itemService.save(OWNER_ID, itemMapper.toItemFullDto(item));
+        bookingService.create(BOOKER_ID, booking1);
+        BookingDto overlapping = BookingDto.builder()
+                .itemId(1L)
+                .start(booking1.getStart().plusHours(1))
+                .end(booking1.getEnd().plusHours(1))
+                .build();
+        BookingDto unknownItem = BookingDto.builder()
+                .itemId(99L)
+                .start(booking2.getStart())
+                .end(booking2.getEnd())
+                .build();
+
+        List<BookingBatchResultDto> results = bookingService.createAll(BOOKER_ID,
+                List.of(booking2, overlapping, unknownItem));
+
+        assertEquals(3, results.size());
+        assertNotNull(results.get(0).getBooking());
+        assertNotNull(results.get(1).getError());
+        assertNotNull(results.get(2).getError());
+        assertEquals(2, bookingService.getAllByBooker(BOOKER_ID, BookingState.ALL.toString(), 0, 5).size());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void decide_shouldApplyDecisionsAndFreeRejectedSlots() {
+        userService.save(userMapper.toUserDto(owner));
+        userService.save(userMapper.toUserDto(booker));
+        itemService.save(OWNER_ID, itemMapper.toItemFullDto(item));
+        long rejectedId = bookingService.create(BOOKER_ID, booking1).orElseThrow().getId();
+        long approvedId = bookingService.create(BOOKER_ID, booking2).orElseThrow().getId();
+
+        List<BookingDecisionResultDto> results = bookingService.decide(OWNER_ID, List.of(
+                new BookingDecisionDto(rejectedId, false), new BookingDecisionDto(approvedId, true)));
+
+        assertEquals(BookingStatus.REJECTED, results.get(0).getStatus());
+        assertEquals(BookingStatus.APPROVED, results.get(1).getStatus());
+        assertEquals(BookingStatus.APPROVED,
+                bookingService.getByIdAndBookerOrOwner(OWNER_ID, approvedId).orElseThrow().getStatus());
+        assertTrue(bookingService.create(BOOKER_ID, booking1).isPresent());
+    }
+}
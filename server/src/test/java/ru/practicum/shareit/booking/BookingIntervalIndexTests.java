@@ -0,0 +1,250 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.IntervalTree;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.error.ExceptionDescriptions.BOOKING_DATES_OVERLAP;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTests {
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private static final long ID_1 = 1L;
+    private static final long ID_2 = 2L;
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+    private final Item item = Item.builder().id(ID_1).build();
+    private Booking existing;
+
+    @BeforeEach
+    void init() {
+        existing = Booking.builder()
+                .id(ID_1)
+                .start(START)
+                .end(START.plusDays(2))
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+    private BookingInterval existingInterval() {
+        return new BookingInterval(ID_1, existing.getId(), existing.getStart(), existing.getEnd());
+    }
+
+    @Test
+    void intervalTree_shouldRemoveOnlyEndedIntervals() {
+        IntervalTree tree = new IntervalTree();
+        for (int i = 0; i < 100; i++) {
+            tree.insert(START.plusDays(i * 2), START.plusDays(i * 2 + 1), i);
+        }
+
+        tree.removeEnded(START.plusDays(40).plusHours(12));
+
+        assertEquals(80, tree.size());
+        assertFalse(tree.overlaps(START, START.plusDays(39)));
+        assertTrue(tree.overlaps(START.plusDays(40), START.plusDays(41)));
+        assertTrue(tree.contains(START.plusDays(40), 20));
+    }
+
+    @Test
+    void intervalTree_shouldDetectOverlapsOfHalfOpenIntervals() {
+        IntervalTree tree = new IntervalTree();
+        for (int i = 0; i < 100; i++) {
+            tree.insert(START.plusDays(i * 2), START.plusDays(i * 2 + 1), i);
+        }
+
+        assertEquals(100, tree.size());
+        assertTrue(tree.overlaps(START.plusDays(10).plusHours(12), START.plusDays(10).plusHours(13)));
+        assertFalse(tree.overlaps(START.plusDays(11), START.plusDays(12)));
+        assertTrue(tree.remove(START.plusDays(10), 5));
+        assertFalse(tree.overlaps(START.plusDays(10).plusHours(12), START.plusDays(10).plusHours(13)));
+        assertFalse(tree.remove(START.plusDays(10), 5));
+        assertEquals(99, tree.size());
+    }
+
+    @Test
+    void save_shouldThrowValidationException_DatesOverlap() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of(existingInterval()));
+        Booking booking = Booking.builder()
+                .start(START.plusDays(1))
+                .end(START.plusDays(3))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+
+        Exception exception = assertThrows(ValidationException.class, () -> bookingIntervalIndex.save(booking));
+
+        assertEquals(BOOKING_DATES_OVERLAP.getTitle(), exception.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void release_shouldFreeSlot_WhenBookingRejected() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of(existingInterval()));
+        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Booking booking = Booking.builder()
+                .id(ID_2)
+                .start(START.plusDays(1))
+                .end(START.plusDays(3))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        assertThrows(ValidationException.class, () -> bookingIntervalIndex.save(booking));
+
+        bookingIntervalIndex.release(List.of(existing));
+        Booking saved = bookingIntervalIndex.save(booking);
+
+        assertEquals(ID_2, saved.getId());
+        verify(bookingRepository, times(1)).findIntervalsByItemId(anyLong(), any(), any());
+    }
+
+    @Test
+    void saveAll_shouldSkipBookingsOverlappingIndexOrBatch() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of(existingInterval()));
+        when(bookingRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Booking overlapsExisting = Booking.builder()
+                .start(START.plusDays(1))
+                .end(START.plusDays(3))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        Booking free = Booking.builder()
+                .start(START.plusDays(2))
+                .end(START.plusDays(4))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        Booking overlapsBatch = Booking.builder()
+                .start(START.plusDays(3))
+                .end(START.plusDays(5))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+
+        List<Booking> saved = bookingIntervalIndex.saveAll(List.of(overlapsExisting, free, overlapsBatch));
+
+        assertEquals(List.of(free), saved);
+        verify(bookingRepository, times(1)).saveAll(List.of(free));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(anyLong(), any(), any());
+    }
+
+    @Test
+    void release_shouldKeepOtherIntervals_WithoutReloadingTree() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of(existingInterval()));
+        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Booking pending = Booking.builder()
+                .id(ID_2)
+                .start(START.plusDays(4))
+                .end(START.plusDays(6))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        bookingIntervalIndex.save(pending);
+
+        bookingIntervalIndex.release(List.of(existing));
+
+        Booking overlapsPending = Booking.builder()
+                .start(START.plusDays(5))
+                .end(START.plusDays(7))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        assertThrows(ValidationException.class, () -> bookingIntervalIndex.save(overlapsPending));
+        Booking overlapsReleased = Booking.builder()
+                .id(3L)
+                .start(START.plusDays(1))
+                .end(START.plusDays(2))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        assertEquals(overlapsReleased, bookingIntervalIndex.save(overlapsReleased));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(anyLong(), any(), any());
+    }
+
+    @Test
+    void save_shouldRemoveOnlyOwnInterval_WhenTransactionRolledBack() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of(existingInterval()));
+        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Booking rolledBack = Booking.builder()
+                .id(ID_2)
+                .start(START.plusDays(4))
+                .end(START.plusDays(6))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingIntervalIndex.save(rolledBack);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Booking overlapsRolledBack = Booking.builder()
+                .id(3L)
+                .start(START.plusDays(5))
+                .end(START.plusDays(7))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        assertEquals(overlapsRolledBack, bookingIntervalIndex.save(overlapsRolledBack));
+        Booking overlapsExisting = Booking.builder()
+                .start(START.plusDays(1))
+                .end(START.plusDays(2))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        assertThrows(ValidationException.class, () -> bookingIntervalIndex.save(overlapsExisting));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(anyLong(), any(), any());
+    }
+
+    @Test
+    void save_shouldReloadIdleSlot_WhenTooManySlotsLoaded() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of());
+        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        for (long itemId = 1; itemId <= 10_002; itemId++) {
+            bookingIntervalIndex.save(Booking.builder()
+                    .id(itemId)
+                    .start(START)
+                    .end(START.plusDays(1))
+                    .item(Item.builder().id(itemId).build())
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+
+        verify(bookingRepository, times(10_002)).findIntervalsByItemId(anyLong(), any(), any());
+        bookingIntervalIndex.save(Booking.builder()
+                .id(10_003L)
+                .start(START.plusDays(2))
+                .end(START.plusDays(3))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build());
+        verify(bookingRepository, times(2)).findIntervalsByItemId(eq(ID_1), any(), any());
+    }
+}
@@ -1,18 +1,26 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.TimeSlot;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -60,6 +68,7 @@ import static org.junit.jupiter.api.Assertions.*;
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final TestEntityManager entityManager;
 
     @BeforeEach
     void saveData() {
@@ -71,63 +80,97 @@ import static org.junit.jupiter.api.Assertions.*;
     }
 
     @Test
-    void findAllByItemIdOrderByStartAsc_shouldReturnCollectionWithSize2Asc() {
-        List<Booking> bookings = bookingRepository.findAllByItemIdOrderByStartAsc(ID_1);
+    void compareAndSetStatus_shouldUpdateOnlyWhenExpectedStatusAndOwnerMatch() {
+        entityManager.flush();
+
+        int foreignUpdated = bookingRepository.compareAndSetStatus(booking2.getId(), booker.getId(),
+                BookingStatus.WAITING, BookingStatus.APPROVED);
+        int updated = bookingRepository.compareAndSetStatus(booking2.getId(), owner.getId(),
+                BookingStatus.WAITING, BookingStatus.APPROVED);
+        int repeated = bookingRepository.compareAndSetStatus(booking2.getId(), owner.getId(),
+                BookingStatus.WAITING, BookingStatus.REJECTED);
+
+        assertEquals(0, foreignUpdated);
+        assertEquals(1, updated);
+        assertEquals(0, repeated);
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(booking2.getId()).orElseThrow().getStatus());
+    }
 
-        int expectedSize = 2;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
-        assertNotNull(bookings);
-        assertTrue(firstElement.isPresent());
-        assertEquals(expectedSize, bookings.size());
-        assertEquals(booking1.getId(), firstElement.get().getId());
+    @Test
+    void updateWaitingStatus_shouldUpdateOnlyWaitingBookingsOfOwner() {
+        entityManager.flush();
+        List<Long> bookingIds = List.of(booking1.getId(), booking2.getId());
+
+        int foreignUpdated = bookingRepository.updateWaitingStatus(bookingIds, booker.getId(),
+                BookingStatus.APPROVED);
+        int updated = bookingRepository.updateWaitingStatus(bookingIds, owner.getId(), BookingStatus.APPROVED);
+
+        assertEquals(0, foreignUpdated);
+        assertEquals(1, updated);
+        assertEquals(BookingStatus.CANCELED, bookingRepository.findById(booking1.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(booking2.getId()).orElseThrow().getStatus());
+        assertTrue(bookingRepository.findAllForDecision(bookingIds, booker.getId()).isEmpty());
     }
 
     @Test
-    void findAllByItemIdOrderByStartDesc_shouldReturnCollectionWithSize2Desc() {
-        List<Booking> bookings = bookingRepository.findAllByItemIdOrderByStartDesc(ID_1);
+    void existsByBookerIdAndItemIdAndStatusAndEndBefore_shouldMatchOnlyFinishedBookingsWithStatus() {
+        LocalDateTime afterBoth = end.plusDays(1);
+
+        assertTrue(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(booker.getId(), item.getId(),
+                BookingStatus.WAITING, afterBoth));
+        assertFalse(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(booker.getId(), item.getId(),
+                BookingStatus.WAITING, end));
+        assertFalse(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(booker.getId(), item.getId(),
+                BookingStatus.APPROVED, afterBoth));
+        assertTrue(bookingRepository.existsByBookerIdAndItemIdAndEndBefore(booker.getId(), item.getId(), afterBoth));
+    }
 
-        int expectedSize = 2;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
-        assertNotNull(bookings);
-        assertTrue(firstElement.isPresent());
+    @Test
+    void findLastByItemIds_shouldReturnLatestBookingStartedBeforeDate() {
+        List<Booking> bookings = bookingRepository.findLastByItemIds(List.of(ID_1), start.plusMinutes(30));
+
+        int expectedSize = 1;
         assertEquals(expectedSize, bookings.size());
-        assertEquals(booking2.getId(), firstElement.get().getId());
+        assertEquals(booking1.getId(), bookings.get(0).getId());
     }
 
     @Test
-    void findAllByBookerIdOrderByStartDesc_shouldReturnCollectionWithSize2Desc() {
-        List<Booking> bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(ID_2, page)
-                .stream().collect(Collectors.toList());
+    void findNextByItemIds_shouldReturnEarliestBookingStartingAfterDate() {
+        List<Booking> bookings = bookingRepository.findNextByItemIds(List.of(ID_1), start.plusMinutes(30));
 
-        int expectedSize = 2;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
-        assertNotNull(bookings);
-        assertTrue(firstElement.isPresent());
+        int expectedSize = 1;
         assertEquals(expectedSize, bookings.size());
-        assertEquals(booking2.getId(), firstElement.get().getId());
+        assertEquals(booking2.getId(), bookings.get(0).getId());
     }
 
     @Test
-    void findAllByBookerIdAndStatusOrderByStartDesc_shouldReturnCollectionWithSize1Desc() {
-        List<Booking> bookings = bookingRepository
-                .findAllByBookerIdAndStatusOrderByStartDesc(ID_2, BookingStatus.CANCELED, page)
-                .stream().collect(Collectors.toList());
+    void streamBusySlots_shouldReturnBookingsIntersectingWindowOrderedByStart() {
+        List<TimeSlot> slots = bookingRepository.streamBusySlots(ID_1, end, end.plusDays(1),
+                        BookingStatus.ACTIVE_STATUSES)
+                .collect(Collectors.toList());
 
         int expectedSize = 1;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
-        assertNotNull(bookings);
-        assertTrue(firstElement.isPresent());
-        assertEquals(expectedSize, bookings.size());
-        assertEquals(booking1.getId(), firstElement.get().getId());
+        assertEquals(expectedSize, slots.size());
+        assertEquals(booking2.getStart(), slots.get(0).getStart());
+        assertEquals(booking2.getEnd(), slots.get(0).getEnd());
+    }
+
+    @Test
+    void streamBusySlots_shouldSkipCanceledBookings() {
+        List<TimeSlot> slots = bookingRepository.streamBusySlots(ID_1, start, end.plusDays(1),
+                        BookingStatus.ACTIVE_STATUSES)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(new TimeSlot(booking2.getStart(), booking2.getEnd())), slots);
     }
 
     @Test
-    void findAllByItemOwnerIdOrderByStartDesc_shouldReturnCollectionWithSize2Desc() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(ID_1, page)
+    void findAllByState_shouldReturnBookerBookingsOrderedByStartDesc() {
+        List<BookingFullDto> bookings = bookingRepository.findAllByState(false, BookingState.ALL, ID_2, start, page)
                 .stream().collect(Collectors.toList());
 
         int expectedSize = 2;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
+        Optional<BookingFullDto> firstElement = bookings.stream().findFirst();
         assertNotNull(bookings);
         assertTrue(firstElement.isPresent());
         assertEquals(expectedSize, bookings.size());
@@ -135,26 +178,25 @@ import static org.junit.jupiter.api.Assertions.*;
     }
 
     @Test
-    void findAllByItemOwnerIdAndStatusOrderByStartDesc_shouldReturnCollectionWithSize1Desc() {
-        List<Booking> bookings = bookingRepository
-                .findAllByItemOwnerIdAndStatusOrderByStartDesc(ID_1, BookingStatus.CANCELED, page)
+    void findAllByState_shouldReturnOwnerBookingsOrderedByStartDesc() {
+        List<BookingFullDto> bookings = bookingRepository.findAllByState(true, BookingState.ALL, ID_1, start, page)
                 .stream().collect(Collectors.toList());
 
-        int expectedSize = 1;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
+        int expectedSize = 2;
+        Optional<BookingFullDto> firstElement = bookings.stream().findFirst();
         assertNotNull(bookings);
         assertTrue(firstElement.isPresent());
         assertEquals(expectedSize, bookings.size());
-        assertEquals(booking1.getId(), firstElement.get().getId());
+        assertEquals(booking2.getId(), firstElement.get().getId());
     }
 
     @Test
-    void findByOwnerAndDatesFuture_shouldReturnCollectionWithSize2() {
-        List<Booking> bookings = bookingRepository.findByOwnerAndDatesFuture(ID_1, start.minusDays(1), page)
+    void findAllByState_shouldReturnOwnerFutureBookings() {
+        List<BookingFullDto> bookings = bookingRepository.findAllByState(true, BookingState.FUTURE, ID_1, start.minusDays(1), page)
                 .stream().collect(Collectors.toList());
 
         int expectedSize = 2;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
+        Optional<BookingFullDto> firstElement = bookings.stream().findFirst();
         assertNotNull(bookings);
         assertTrue(firstElement.isPresent());
         assertEquals(expectedSize, bookings.size());
@@ -162,12 +204,12 @@ import static org.junit.jupiter.api.Assertions.*;
     }
 
     @Test
-    void findByOwnerAndDatesCurrent_shouldReturnCollectionWithSize1() {
-        List<Booking> bookings = bookingRepository.findByOwnerAndDatesCurrent(ID_1, start.plusMinutes(30), page)
+    void findAllByState_shouldReturnOwnerCurrentBookings() {
+        List<BookingFullDto> bookings = bookingRepository.findAllByState(true, BookingState.CURRENT, ID_1, start.plusMinutes(30), page)
                 .stream().collect(Collectors.toList());
 
         int expectedSize = 1;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
+        Optional<BookingFullDto> firstElement = bookings.stream().findFirst();
         assertNotNull(bookings);
         assertTrue(firstElement.isPresent());
         assertEquals(expectedSize, bookings.size());
@@ -175,25 +217,12 @@ import static org.junit.jupiter.api.Assertions.*;
     }
 
     @Test
-    void findByOwnerAndDatesPast_shouldReturnCollectionWithSize2() {
-        List<Booking> bookings = bookingRepository.findByOwnerAndDatesPast(ID_1, end.plusHours(8), page)
+    void findAllByState_shouldReturnOwnerPastBookings() {
+        List<BookingFullDto> bookings = bookingRepository.findAllByState(true, BookingState.PAST, ID_1, end.plusHours(8), page)
                 .stream().collect(Collectors.toList());
 
         int expectedSize = 2;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
-        assertNotNull(bookings);
-        assertTrue(firstElement.isPresent());
-        assertEquals(expectedSize, bookings.size());
-        assertEquals(booking2.getId(), firstElement.get().getId());
-    }
-
-    @Test
-    void findAllByBookerId_shouldReturnCollectionWithSize2() {
-        List<Booking> bookings = bookingRepository
-                .findAllByBookerId(ID_2);
-
-        int expectedSize = 2;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
+        Optional<BookingFullDto> firstElement = bookings.stream().findFirst();
         assertNotNull(bookings);
         assertTrue(firstElement.isPresent());
         assertEquals(expectedSize, bookings.size());
@@ -201,12 +230,12 @@ import static org.junit.jupiter.api.Assertions.*;
     }
 
     @Test
-    void findByBookerAndDatesFuture_shouldReturnCollectionWithSize2() {
-        List<Booking> bookings = bookingRepository.findByBookerAndDatesFuture(ID_2, start.minusDays(1), page)
+    void findAllByState_shouldReturnBookerFutureBookings() {
+        List<BookingFullDto> bookings = bookingRepository.findAllByState(false, BookingState.FUTURE, ID_2, start.minusDays(1), page)
                 .stream().collect(Collectors.toList());
 
         int expectedSize = 2;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
+        Optional<BookingFullDto> firstElement = bookings.stream().findFirst();
         assertNotNull(bookings);
         assertTrue(firstElement.isPresent());
         assertEquals(expectedSize, bookings.size());
@@ -214,11 +243,11 @@ import static org.junit.jupiter.api.Assertions.*;
     }
 
     @Test
-    void findByBookerAndDatesCurrent_shouldReturnCollectionWithSize1() {
-        List<Booking> bookings = bookingRepository.findByBookerAndDatesCurrent(ID_2, start.plusMinutes(30), page)
+    void findAllByState_shouldReturnBookerCurrentBookings() {
+        List<BookingFullDto> bookings = bookingRepository.findAllByState(false, BookingState.CURRENT, ID_2, start.plusMinutes(30), page)
                 .stream().collect(Collectors.toList());
         int expectedSize = 1;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
+        Optional<BookingFullDto> firstElement = bookings.stream().findFirst();
         assertNotNull(bookings);
         assertTrue(firstElement.isPresent());
         assertEquals(expectedSize, bookings.size());
@@ -226,12 +255,12 @@ import static org.junit.jupiter.api.Assertions.*;
     }
 
     @Test
-    void findByBookerAndDatesPast_shouldReturnCollectionWithSize2() {
-        List<Booking> bookings = bookingRepository.findByBookerAndDatesPast(ID_2, end.plusHours(8), page)
+    void findAllByState_shouldReturnBookerPastBookings() {
+        List<BookingFullDto> bookings = bookingRepository.findAllByState(false, BookingState.PAST, ID_2, end.plusHours(8), page)
                 .stream().collect(Collectors.toList());
 
         int expectedSize = 2;
-        Optional<Booking> firstElement = bookings.stream().findFirst();
+        Optional<BookingFullDto> firstElement = bookings.stream().findFirst();
         assertNotNull(bookings);
         assertTrue(firstElement.isPresent());
         assertEquals(expectedSize, bookings.size());
@@ -248,6 +277,18 @@ import static org.junit.jupiter.api.Assertions.*;
         assertEquals(ID_1, booking.get().getId());
     }
 
+    @Test
+    void findByIdAndBookerOrOwner_shouldFetchOnlyItemAndBooker() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Booking booking = bookingRepository.findByIdAndBookerOrOwner(booking1.getId(), booker.getId()).orElseThrow();
+
+        assertTrue(Hibernate.isInitialized(booking.getItem()));
+        assertTrue(Hibernate.isInitialized(booking.getBooker()));
+        assertFalse(Hibernate.isInitialized(booking.getItem().getOwner()));
+    }
+
     @Test
     void findByIdAndItemOwnerId_shouldReturnBooking() {
         Optional<Booking> booking = bookingRepository
@@ -257,4 +298,53 @@ import static org.junit.jupiter.api.Assertions.*;
         assertEquals(start, booking.get().getStart());
         assertEquals(ID_1, booking.get().getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByState_shouldReturnBookingsAfterCursor() {
+        List<BookingFullDto> firstPage = bookingRepository.findAllByState(false, BookingState.ALL, ID_2,
+                LocalDateTime.now(), null, 1);
+        BookingFullDto last = firstPage.get(0);
+        List<BookingFullDto> secondPage = bookingRepository.findAllByState(false, BookingState.ALL, ID_2,
+                LocalDateTime.now(), new KeysetCursor(last.getStart(), last.getId()), 5);
+
+        int expectedSize = 1;
+        assertEquals(expectedSize, firstPage.size());
+        assertEquals(booking2.getId(), last.getId());
+        assertEquals(expectedSize, secondPage.size());
+        assertEquals(booking1.getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    void findAllByState_shouldFilterOwnerBookingsByStatus() {
+        List<BookingFullDto> bookings = bookingRepository.findAllByState(true, BookingState.WAITING, ID_1,
+                LocalDateTime.now(), null, 5);
+
+        int expectedSize = 1;
+        assertEquals(expectedSize, bookings.size());
+        assertEquals(booking2.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void findAllByState_shouldProjectBookingsWithoutManagingEntities() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Slice<BookingFullDto> bookings = bookingRepository.findAllByState(false, BookingState.ALL, ID_2,
+                LocalDateTime.now(), PageRequest.of(0, 1));
+
+        BookingFullDto booking = bookings.getContent().get(0);
+        assertTrue(bookings.hasNext());
+        assertEquals(booking2.getId(), booking.getId());
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+        assertEquals(booker.getName(), booking.getBooker().getName());
+        assertEquals(item.getName(), booking.getItem().getName());
+        assertTrue(entityManager.getEntityManager().unwrap(Session.class)
+                .getStatistics().getEntityKeys().isEmpty());
+    }
+
+    @Test
+    void countByState_shouldCountBookingsWithoutLoadingThem() {
+        assertEquals(2, bookingRepository.countByState(false, BookingState.ALL, ID_2, LocalDateTime.now()));
+        assertEquals(1, bookingRepository.countByState(true, BookingState.WAITING, ID_1, LocalDateTime.now()));
+    }
+}
@@ -6,16 +6,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -24,6 +25,8 @@ import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -31,6 +34,7 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -46,6 +50,8 @@ class BookingUnitTests {
     private ItemRepository itemRepository;
     @Mock
     private BookingMapper bookingMapper;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
     @InjectMocks
     private BookingService bookingService;
 
@@ -55,16 +61,12 @@ class BookingUnitTests {
     private static final int SIZE = 5;
     private static final LocalDateTime START = LocalDateTime.of(2022, 11, 5, 1, 1);
     private static final LocalDateTime END = LocalDateTime.of(2022, 11, 7, 1, 1);
-    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start");
-    private static final Pageable PAGE = PageRequest.of(0, 5);
-    private static final Pageable PAGE_SORT = PageRequest.of(0, 5, SORT);
     private BookingDto bookingDto = new BookingDto();
     private User owner = new User();
     private User booker = new User();
     private Item item = new Item();
     private BookingFullDto bookingFullDto = new BookingFullDto();
     private Booking booking = new Booking();
-    private List<Booking> bookings;
 
     @BeforeEach
     public void init() {
@@ -104,7 +106,6 @@ class BookingUnitTests {
                 .item(item)
                 .status(BookingStatus.WAITING)
                 .build();
-        bookings = Collections.singletonList(booking);
     }
 
     @Test
@@ -113,238 +114,363 @@ class BookingUnitTests {
         mockFindItemById1();
         mockFromBookingFullDto();
         mockToBookingFullDto();
-        when(bookingRepository.save(booking)).thenReturn(booking);
+        when(bookingIntervalIndex.save(booking)).thenReturn(booking);
 
         Optional<BookingFullDto> createdBooking = bookingService.create(ID_2, bookingDto);
 
         assertTrue(createdBooking.isPresent());
         assertEquals(ID_1, createdBooking.get().getId());
-        verify(bookingRepository,times(1)).save(booking);
+        verify(bookingIntervalIndex,times(1)).save(booking);
+    }
+
+    @Test
+    void createAll_shouldReturnResultPerEntry() {
+        BookingDto unknownItemDto = BookingDto.builder()
+                .itemId(ID_2)
+                .start(START)
+                .end(END).build();
+        BookingDto overlappingDto = BookingDto.builder()
+                .itemId(ID_1)
+                .start(START.plusDays(1))
+                .end(END.plusDays(1)).build();
+        Booking overlapping = Booking.builder()
+                .start(overlappingDto.getStart())
+                .end(overlappingDto.getEnd())
+                .booker(booker)
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        mockFindUserById2();
+        mockFromBookingFullDto();
+        mockToBookingFullDto();
+        when(itemRepository.findAllById(Set.of(ID_1, ID_2))).thenReturn(List.of(item));
+        when(bookingMapper.fromBookingDto(overlappingDto, item, booker, BookingStatus.WAITING))
+                .thenReturn(overlapping);
+        when(bookingIntervalIndex.saveAll(List.of(booking, overlapping))).thenReturn(List.of(booking));
+
+        List<BookingBatchResultDto> results = bookingService.createAll(ID_2,
+                List.of(bookingDto, unknownItemDto, overlappingDto));
+
+        assertEquals(3, results.size());
+        assertEquals(ID_1, results.get(0).getBooking().getId());
+        assertNull(results.get(0).getError());
+        assertNull(results.get(1).getBooking());
+        assertEquals(ITEM_NOT_FOUND.getTitle(), results.get(1).getError());
+        assertNull(results.get(2).getBooking());
+        assertEquals(BOOKING_DATES_OVERLAP.getTitle(), results.get(2).getError());
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void createAll_shouldThrowNotFoundException_UserNotFound() {
+        when(userRepository.findCachedById(ID_2)).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(NotFoundException.class, () ->
+                bookingService.createAll(ID_2, List.of(bookingDto)));
+
+        assertEquals(USER_NOT_FOUND.getTitle(), exception.getMessage());
+        verify(bookingIntervalIndex, never()).saveAll(any());
+    }
+
+    @Test
+    void createAll_shouldThrowValidationException_BatchSizeOutOfRange() {
+        List<BookingDto> tooLarge = Collections.nCopies(BookingService.MAX_BATCH_SIZE + 1, bookingDto);
+
+        Exception empty = assertThrows(ValidationException.class, () -> bookingService.createAll(ID_2, List.of()));
+        Exception large = assertThrows(ValidationException.class, () -> bookingService.createAll(ID_2, tooLarge));
+
+        assertEquals(INVALID_BATCH_SIZE.getTitle(), empty.getMessage());
+        assertEquals(INVALID_BATCH_SIZE.getTitle(), large.getMessage());
+        verify(userRepository, never()).findCachedById(anyLong());
+        verify(bookingIntervalIndex, never()).saveAll(any());
+    }
+
+    @Test
+    void decide_shouldUpdateWaitingBookingsWithSetBasedStatements() {
+        Booking approved = Booking.builder()
+                .id(ID_2)
+                .start(END)
+                .end(END.plusDays(1))
+                .booker(booker)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .build();
+        long unknownId = 3L;
+        mockFindUserById1();
+        when(bookingRepository.findAllForDecision(Set.of(ID_1, ID_2, unknownId), ID_1))
+                .thenReturn(List.of(booking, approved));
+
+        List<BookingDecisionResultDto> results = bookingService.decide(ID_1, List.of(
+                new BookingDecisionDto(ID_1, false),
+                new BookingDecisionDto(ID_2, true),
+                new BookingDecisionDto(unknownId, true),
+                new BookingDecisionDto(ID_1, true)));
+
+        assertEquals(4, results.size());
+        assertEquals(BookingStatus.REJECTED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertEquals(BOOKING_NOT_WAITING.getTitle(), results.get(1).getError());
+        assertEquals(BOOKING_NOT_FOUND.getTitle(), results.get(2).getError());
+        assertEquals(BOOKING_NOT_WAITING.getTitle(), results.get(3).getError());
+        verify(bookingRepository, times(1)).updateWaitingStatus(List.of(ID_1), ID_1, BookingStatus.REJECTED);
+        verify(bookingRepository, never()).updateWaitingStatus(any(), anyLong(), eq(BookingStatus.APPROVED));
+        verify(bookingIntervalIndex, times(1)).release(List.of(booking));
+    }
+
+    @Test
+    void decide_shouldThrowValidationException_InvalidDecisions() {
+        List<BookingDecisionDto> tooLarge = Collections.nCopies(BookingService.MAX_BATCH_SIZE + 1,
+                new BookingDecisionDto(ID_1, true));
+
+        Exception large = assertThrows(ValidationException.class, () -> bookingService.decide(ID_1, tooLarge));
+        Exception noId = assertThrows(ValidationException.class, () ->
+                bookingService.decide(ID_1, List.of(new BookingDecisionDto(null, true))));
+        Exception noApproved = assertThrows(ValidationException.class, () ->
+                bookingService.decide(ID_1, List.of(new BookingDecisionDto(ID_1, null))));
+
+        assertEquals(INVALID_BATCH_SIZE.getTitle(), large.getMessage());
+        assertEquals(INVALID_DECISION.getTitle(), noId.getMessage());
+        assertEquals(INVALID_DECISION.getTitle(), noApproved.getMessage());
+        verify(bookingRepository, never()).findAllForDecision(any(), anyLong());
     }
 
     @Test
     void confirmation_shouldCallRepository() {
+        when(bookingRepository.compareAndSetStatus(ID_1, ID_1, BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
         when(bookingRepository.findByIdAndItemOwnerId(ID_1, ID_1)).thenReturn(Optional.ofNullable(booking));
         mockToBookingFullDto();
-        when(bookingRepository.save(booking)).thenReturn(booking);
 
         Optional<BookingFullDto> confirmedBooking = bookingService.confirmation(ID_1, ID_1, true);
 
         assertTrue(confirmedBooking.isPresent());
         assertEquals(ID_1, confirmedBooking.get().getId());
-        verify(bookingRepository,times(1)).save(booking);
+        verify(bookingRepository, never()).save(any());
+        verify(bookingIntervalIndex, never()).release(any());
+    }
+
+    @Test
+    void confirmation_shouldReleaseSlot_WhenRejected() {
+        when(bookingRepository.compareAndSetStatus(ID_1, ID_1, BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(1);
+        when(bookingRepository.findByIdAndItemOwnerId(ID_1, ID_1)).thenReturn(Optional.ofNullable(booking));
+        mockToBookingFullDto();
+
+        bookingService.confirmation(ID_1, ID_1, false);
+
+        verify(bookingIntervalIndex, times(1)).release(List.of(booking));
     }
 
     @Test
     void getAllByBooker_shouldCallRepository_StateCurrent() {
         mockFindUserById2();
-        mockToBookingFullDto();
-        when(bookingRepository.findByBookerAndDatesCurrent(
-                Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(bookings, PAGE, bookings.size()));
+        when(bookingRepository.findAllByState(eq(false), eq(BookingState.CURRENT), eq(ID_2),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByBooker(
                 ID_2, BookingState.CURRENT.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findByBookerAndDatesCurrent(Mockito.anyLong(),
-                        Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class));
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
     }
 
     @Test
     void getAllByBooker_shouldCallRepository_StatePast() {
         mockFindUserById2();
-        mockToBookingFullDto();
-        when(bookingRepository.findByBookerAndDatesPast(
-                Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(bookings, PAGE, bookings.size()));
+        when(bookingRepository.findAllByState(eq(false), eq(BookingState.PAST), eq(ID_2),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByBooker(
                 ID_2, BookingState.PAST.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findByBookerAndDatesPast(Mockito.anyLong(),
-                        Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class));
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
     }
 
     @Test
     void getAllByBooker_shouldCallRepository_StateCurrentRejected() {
         mockFindUserById2();
-        mockToBookingFullDto();
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                ID_2, BookingStatus.REJECTED, PageRequest.of(FROM / SIZE, SIZE, SORT)))
-                .thenReturn(new PageImpl<>(bookings, PAGE, bookings.size()));
+        when(bookingRepository.findAllByState(eq(false), eq(BookingState.REJECTED), eq(ID_2),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByBooker(
                 ID_2, BookingState.REJECTED.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findAllByBookerIdAndStatusOrderByStartDesc(ID_2, BookingStatus.REJECTED,
-                        PageRequest.of(FROM / SIZE, SIZE, SORT));
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
     }
 
     @Test
     void getAllByBooker_shouldCallRepository_StateCurrentWaiting() {
         mockFindUserById2();
-        mockToBookingFullDto();
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                ID_2, BookingStatus.WAITING, PageRequest.of(FROM / SIZE, SIZE, SORT)))
-                .thenReturn(new PageImpl<>(bookings, PAGE_SORT, bookings.size()));
+        when(bookingRepository.findAllByState(eq(false), eq(BookingState.WAITING), eq(ID_2),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByBooker(
                 ID_2, BookingState.WAITING.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findAllByBookerIdAndStatusOrderByStartDesc(ID_2, BookingStatus.WAITING,
-                        PageRequest.of(FROM / SIZE, SIZE, SORT));
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
     }
 
     @Test
     void getAllByBooker_shouldCallRepository_StateCurrentFuture() {
         mockFindUserById2();
-        mockToBookingFullDto();
-        when(bookingRepository.findByBookerAndDatesFuture(
-                Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(bookings, PAGE_SORT, bookings.size()));
+        when(bookingRepository.findAllByState(eq(false), eq(BookingState.FUTURE), eq(ID_2),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByBooker(
                 ID_2, BookingState.FUTURE.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findByBookerAndDatesFuture(Mockito.anyLong(),
-                        Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class));
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
     }
 
     @Test
     void getAllByBooker_shouldCallRepository_StateCurrentAll() {
         mockFindUserById2();
-        mockToBookingFullDto();
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(
-                Mockito.anyLong(), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(bookings, PAGE_SORT, bookings.size()));
+        when(bookingRepository.findAllByState(eq(false), eq(BookingState.ALL), eq(ID_2),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByBooker(
                 ID_2, BookingState.ALL.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findAllByBookerIdOrderByStartDesc(Mockito.anyLong(), Mockito.any(Pageable.class));
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
     }
 
     @Test
     void getAllByOwner_shouldCallRepository_StateCurrent() {
         mockFindUserById1();
-        mockToBookingFullDto();
-        when(bookingRepository.findByOwnerAndDatesCurrent(
-                Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(bookings, PAGE, bookings.size()));
+        when(bookingRepository.findAllByState(eq(true), eq(BookingState.CURRENT), eq(ID_1),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByOwner(
                 ID_1, BookingState.CURRENT.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findByOwnerAndDatesCurrent(Mockito.anyLong(),
-                        Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class));
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
     }
 
     @Test
     void getAllByOwner_shouldCallRepository_StatePast() {
         mockFindUserById1();
-        mockToBookingFullDto();
-        when(bookingRepository.findByOwnerAndDatesPast(
-                Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(bookings, PAGE, bookings.size()));
+        when(bookingRepository.findAllByState(eq(true), eq(BookingState.PAST), eq(ID_1),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByOwner(
                 ID_1, BookingState.PAST.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findByOwnerAndDatesPast(Mockito.anyLong(),
-                        Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class));
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
     }
 
     @Test
     void getAllByOwner_shouldCallRepository_StateCurrentRejected() {
         mockFindUserById1();
-        mockToBookingFullDto();
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
-                ID_1, BookingStatus.REJECTED, PAGE_SORT))
-                .thenReturn(new PageImpl<>(bookings, PageRequest.of(FROM / SIZE, SIZE), bookings.size()));
+        when(bookingRepository.findAllByState(eq(true), eq(BookingState.REJECTED), eq(ID_1),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByOwner(
                 ID_1, BookingState.REJECTED.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findAllByItemOwnerIdAndStatusOrderByStartDesc(ID_1, BookingStatus.REJECTED, PAGE_SORT);
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
     }
 
     @Test
     void getAllByOwner_shouldCallRepository_StateCurrentWaiting() {
         mockFindUserById1();
-        mockToBookingFullDto();
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
-                ID_1, BookingStatus.WAITING, PAGE_SORT))
-                .thenReturn(new PageImpl<>(bookings, PageRequest.of(FROM / SIZE, SIZE, SORT), bookings.size()));
+        when(bookingRepository.findAllByState(eq(true), eq(BookingState.WAITING), eq(ID_1),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByOwner(
                 ID_1, BookingState.WAITING.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findAllByItemOwnerIdAndStatusOrderByStartDesc(ID_1, BookingStatus.WAITING, PAGE_SORT);
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
     }
 
     @Test
     void getAllByOwner_shouldCallRepository_StateCurrentFuture() {
         mockFindUserById1();
-        mockToBookingFullDto();
-        when(bookingRepository.findByOwnerAndDatesFuture(
-                Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(bookings, PAGE_SORT, bookings.size()));
+        when(bookingRepository.findAllByState(eq(true), eq(BookingState.FUTURE), eq(ID_1),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByOwner(
                 ID_1, BookingState.FUTURE.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findByOwnerAndDatesFuture(Mockito.anyLong(),
-                        Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class));
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
     }
 
     @Test
     void getAllByOwner_shouldCallRepository_StateCurrentAll() {
         mockFindUserById1();
-        mockToBookingFullDto();
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(
-                Mockito.anyLong(), Mockito.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(bookings, PAGE_SORT, bookings.size()));
+        when(bookingRepository.findAllByState(eq(true), eq(BookingState.ALL), eq(ID_1),
+                any(LocalDateTime.class), eq(PageRequest.of(FROM / SIZE, SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(bookingFullDto)));
 
         List<BookingFullDto> bookingsResult = bookingService.getAllByOwner(
                 ID_1, BookingState.ALL.toString(), FROM, SIZE);
 
         Assertions.assertNotNull(bookingsResult);
-        assertEquals(bookings.size(), bookingsResult.size());
-        verify(bookingRepository,times(1))
-                .findAllByItemOwnerIdOrderByStartDesc(Mockito.anyLong(), Mockito.any(Pageable.class));
+        assertEquals(List.of(bookingFullDto), bookingsResult);
+        verify(bookingMapper, never()).toBookingFullDto(any());
+    }
+
+    @Test
+    void getAllByBookerAfter_shouldReturnNextCursor_WhenMoreBookingsExist() {
+        BookingFullDto olderBooking = BookingFullDto.builder()
+                .id(ID_2)
+                .start(START.minusDays(1))
+                .end(END.minusDays(1))
+                .status(BookingStatus.WAITING)
+                .build();
+        mockFindUserById2();
+        when(bookingRepository.findAllByState(eq(false), eq(BookingState.ALL), eq(ID_2),
+                any(LocalDateTime.class), isNull(), eq(2)))
+                .thenReturn(List.of(bookingFullDto, olderBooking));
+
+        KeysetPage<BookingFullDto> page = bookingService.getAllByBookerAfter(
+                ID_2, BookingState.ALL.toString(), "", 1);
+
+        assertEquals(1, page.getContent().size());
+        KeysetCursor nextCursor = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(START, nextCursor.getTimestamp());
+        assertEquals(ID_1, nextCursor.getId());
+    }
+
+    @Test
+    void getAllByOwnerAfter_shouldThrowValidationException_InvalidCursor() {
+        mockFindUserById1();
+
+        Exception exception = assertThrows(ValidationException.class, () ->
+                bookingService.getAllByOwnerAfter(ID_1, BookingState.ALL.toString(), "not-a-cursor", SIZE));
+
+        assertEquals(INVALID_CURSOR.getTitle(), exception.getMessage());
     }
 
     @Test
@@ -398,7 +524,7 @@ class BookingUnitTests {
 
     @Test
     void getAllByBooker_shouldThrowValidationException_UserNotFound() throws ValidationException {
-        when(userRepository.findById(ID_2)).thenReturn(Optional.empty());
+        when(userRepository.findCachedById(ID_2)).thenReturn(Optional.empty());
         Exception exception = assertThrows(NotFoundException.class, () ->
                 bookingService.getAllByBooker(ID_2, "CURRENT", FROM / SIZE, SIZE));
 
@@ -406,11 +532,11 @@ class BookingUnitTests {
     }
 
     private void mockFindUserById1() {
-        when(userRepository.findById(ID_1)).thenReturn(Optional.ofNullable(owner));
+        when(userRepository.findCachedById(ID_1)).thenReturn(Optional.ofNullable(owner));
     }
 
     private void mockFindUserById2() {
-        when(userRepository.findById(ID_2)).thenReturn(Optional.ofNullable(booker));
+        when(userRepository.findCachedById(ID_2)).thenReturn(Optional.ofNullable(booker));
     }
 
     private void mockFindItemById1() {
@@ -67,6 +67,7 @@ class ItemControllerTests {
                         .header(HEADER_USER_ID, ID_1))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("X-Total-Count"))
                 .andExpect(jsonPath("$.[0].id", is(itemFullDto.getId()), Long.class))
                 .andExpect(jsonPath("$.[0].name", is(itemFullDto.getName())))
                 .andExpect(jsonPath("$.[0].description", is(itemFullDto.getDescription())))
@@ -158,6 +159,18 @@ class ItemControllerTests {
                 .andExpect(jsonPath("$.[0].owner.email", is(itemFullDto.getOwner().getEmail())));
     }
 
+    @Test
+    void searchWithTotalTest() throws Exception {
+        when(itemService.search(anyString(), anyInt(), anyInt()))
+                .thenReturn(List.of(itemFullDto));
+        when(itemService.countSearch(anyString())).thenReturn(7L);
+        mockMvc.perform(get("/items/search?text=Book&withTotal=true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "7"))
+                .andExpect(jsonPath("$.[0].id", is(itemFullDto.getId()), Long.class));
+    }
+
     @Test
     void createCommentTest() throws Exception {
         when(itemService.addComment(anyLong(), anyLong(), any()))
@@ -1,16 +1,23 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentFullDto;
 import ru.practicum.shareit.item.dto.ItemFullDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -21,8 +28,13 @@ import java.util.Collection;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMetrics
+@AutoConfigureMockMvc
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class ItemIntegrationTests {
@@ -30,6 +42,9 @@ class ItemIntegrationTests {
     private final ItemServiceImpl itemService;
     private final BookingService bookingService;
     private final UserMapper userMapper;
+    private final ItemRepository itemRepository;
+    private final MeterRegistry meterRegistry;
+    private final MockMvc mockMvc;
 
     private final LocalDateTime start = LocalDateTime.of(2022, 11, 5, 1, 1);
     private final LocalDateTime end = LocalDateTime.of(2022, 11, 7, 1, 1);
@@ -64,6 +79,51 @@ class ItemIntegrationTests {
             .start(start)
             .end(end).build();
 
+    @Test
+    void findById_shouldAnswerNotModifiedUntilItemChanges() throws Exception {
+        userService.save(userMapper.toUserDto(owner));
+        itemService.save(ID_1, itemFullDto);
+
+        String etag = mockMvc.perform(get("/items/{itemId}", ID_1)
+                        .header("X-Sharer-User-Id", ID_1))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/items/{itemId}", ID_1)
+                        .header("X-Sharer-User-Id", ID_1)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        itemService.update(ID_1, ID_1, ItemFullDto.builder().name("itemName2").build());
+
+        mockMvc.perform(get("/items/{itemId}", ID_1)
+                        .header("X-Sharer-User-Id", ID_1)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void findById_shouldHitSecondLevelCacheUntilOwnerDeleted() {
+        userService.save(userMapper.toUserDto(owner));
+        itemService.save(ID_1, itemFullDto);
+
+        itemRepository.findById(ID_1);
+        itemRepository.findById(ID_1);
+        itemRepository.findAllByRequestId(ID_1);
+        itemRepository.findAllByRequestId(ID_1);
+
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", Item.CACHE_REGION).tag("result", "hit")
+                .functionCounter().count(), greaterThanOrEqualTo(1.0));
+        assertThat(meterRegistry.get("hibernate.cache.query.requests").tag("result", "hit")
+                .functionCounter().count(), greaterThanOrEqualTo(1.0));
+
+        userService.delete(ID_1);
+
+        assertThat(itemRepository.findById(ID_1).isPresent(), is(false));
+    }
+
     @Test
     void search_shouldReturnCollectionOfItems() throws ValidationException {
         userService.save(userMapper.toUserDto(owner));
@@ -5,9 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -66,13 +66,13 @@ class ItemRepositoryTests {
 
     @Test
     void findAllByOwnerId_shouldReturnCollectionOfItems() {
-        Page<Item> items = itemRepository.findAllByOwnerId(user1.getId(), PAGE);
+        Slice<Item> items = itemRepository.findAllByOwnerId(user1.getId(), PAGE);
         Optional<Item> firstElement = items.stream().findFirst();
 
         int expectedSize = 1;
         assertNotNull(items);
         assertTrue(firstElement.isPresent());
-        assertEquals(expectedSize, items.getTotalElements());
+        assertEquals(expectedSize, items.getNumberOfElements());
         assertEquals(item1.getId(), firstElement.get().getId());
     }
 
@@ -90,13 +90,42 @@ class ItemRepositoryTests {
 
     @Test
     void search_shouldReturnCollectionOfItems() {
-        Page<Item> items = itemRepository.search("itemDescription1", PAGE);
+        Slice<Item> items = itemRepository.search("itemDescription1", PAGE);
         Optional<Item> firstElement = items.stream().findFirst();
 
         int expectedSize = 1;
         assertNotNull(items);
         assertTrue(firstElement.isPresent());
-        assertEquals(expectedSize, items.getTotalElements());
+        assertEquals(expectedSize, items.getNumberOfElements());
         assertEquals(item1.getId(), firstElement.get().getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void search_shouldReturnOnlyAvailableItemsOrderedById() {
+        item1.setAvailable(false);
+        itemRepository.save(item1);
+        Item item3 = itemRepository.save(Item.builder()
+                .name("itemName3")
+                .description("itemDescription3")
+                .available(true)
+                .owner(user1).build());
+
+        Slice<Item> items = itemRepository.search("itemName", PageRequest.of(0, 1));
+
+        assertEquals(1, items.getNumberOfElements());
+        assertEquals(item2.getId(), items.getContent().get(0).getId());
+        assertTrue(items.hasNext());
+        assertEquals(item3.getId(), itemRepository.search("itemName", PageRequest.of(1, 1)).getContent().get(0).getId());
+        assertEquals(2, itemRepository.countSearch("itemName"));
+    }
+
+    @Test
+    void countByOwnerId_shouldReturnNumberOfOwnerItems() {
+        assertEquals(1, itemRepository.countByOwnerId(user1.getId()));
+    }
+
+    @Test
+    void countSearch_shouldReturnNumberOfMatchingItems() {
+        assertEquals(2, itemRepository.countSearch("itemName"));
+    }
+}
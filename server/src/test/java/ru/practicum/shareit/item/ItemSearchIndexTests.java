@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
+import ru.practicum.shareit.item.dto.ItemSearchText;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTests {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    private static final long ID_1 = 1L;
+    private static final long ID_2 = 2L;
+    private static final long ID_3 = 3L;
+    private final ItemSearchText drill = new ItemSearchText(ID_1, "Дрель", "Простая дрель");
+    private final ItemSearchText screwdriver = new ItemSearchText(ID_2, "Отвертка", "Аккумуляторная отвертка");
+    private final ItemSearchText glue = new ItemSearchText(ID_3, "Клей Момент", "Тюбик суперклея марки Момент");
+
+    @BeforeEach
+    void init() {
+        when(itemRepository.findAllSearchTexts()).thenReturn(List.of(drill, screwdriver));
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void search_shouldMatchSubstringsIgnoringCase() {
+        assertEquals(List.of(ID_1), itemSearchIndex.search("дРелЬ"));
+        assertEquals(List.of(ID_2), itemSearchIndex.search("аккУМУЛЯТОРная"));
+        assertEquals(List.of(), itemSearchIndex.search("перфоратор"));
+    }
+
+    @Test
+    void supports_shouldRejectQueriesShorterThanTrigram() {
+        assertFalse(itemSearchIndex.supports(""));
+        assertFalse(itemSearchIndex.supports("КА"));
+        assertTrue(itemSearchIndex.supports("КАР"));
+    }
+
+    @Test
+    void supports_shouldRejectQueries_UntilIndexBuilt() {
+        ItemSearchIndex notBuilt = new ItemSearchIndex(itemRepository);
+
+        assertFalse(notBuilt.supports("дрель"));
+    }
+
+    @Test
+    void index_shouldReplaceAndRemoveDocuments() {
+        when(itemRepository.findSearchTextById(ID_1))
+                .thenReturn(Optional.of(new ItemSearchText(ID_1, "Перфоратор", "Мощный перфоратор")));
+        itemSearchIndex.index(ID_1);
+        itemSearchIndex.remove(ID_2);
+
+        assertEquals(List.of(), itemSearchIndex.search("дрель"));
+        assertEquals(List.of(ID_1), itemSearchIndex.search("перфоратор"));
+        assertEquals(List.of(), itemSearchIndex.search("отвертка"));
+    }
+
+    @Test
+    void removeAll_shouldDropOnlyGivenItemsWithoutRereadingTable() {
+        itemSearchIndex.removeAll(List.of(ID_1, ID_3));
+
+        assertEquals(List.of(), itemSearchIndex.search("дрель"));
+        assertEquals(List.of(ID_2), itemSearchIndex.search("отвертка"));
+        verify(itemRepository, times(1)).findAllSearchTexts();
+    }
+
+    @Test
+    void search_shouldSkipUnavailableItems() {
+        assertEquals(List.of(), itemSearchIndex.search("суперклея"));
+
+        when(itemRepository.findSearchTextById(ID_3)).thenReturn(Optional.of(glue));
+        itemSearchIndex.index(ID_3);
+        assertEquals(List.of(ID_3), itemSearchIndex.search("суперклея"));
+
+        when(itemRepository.findSearchTextById(ID_1)).thenReturn(Optional.empty());
+        itemSearchIndex.index(ID_1);
+        assertEquals(List.of(), itemSearchIndex.search("дрель"));
+    }
+
+    @Test
+    void supports_shouldRejectLikeWildcards() {
+        assertTrue(itemSearchIndex.supports("дрель"));
+        assertFalse(itemSearchIndex.supports("др_ль"));
+        assertFalse(itemSearchIndex.supports("100%"));
+    }
+}
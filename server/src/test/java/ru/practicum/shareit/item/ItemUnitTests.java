@@ -11,6 +11,8 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.CompletedBookingCache;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -19,6 +21,8 @@ import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentFullDto;
 import ru.practicum.shareit.item.dto.ItemFullDto;
+import ru.practicum.shareit.item.dto.TimeSlot;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
@@ -35,6 +39,7 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -59,6 +64,12 @@ class ItemUnitTests {
     private CommentMapper commentMapper;
     @Mock
     private BookingMapper bookingMapper;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private CompletedBookingCache completedBookingCache;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -130,9 +141,11 @@ class ItemUnitTests {
         List<Item> items = Collections.singletonList(item1);
         when(itemRepository.findAllByOwnerId(anyLong(), Mockito.any(Pageable.class)))
                 .thenReturn(new PageImpl<>(items, PageRequest.of(FROM / SIZE, SIZE), items.size()));
-        when(bookingRepository.findAllByItemIdOrderByStartAsc(item1.getId())).thenReturn(List.of(booking));
-        when(bookingRepository.findAllByItemIdOrderByStartDesc(item1.getId())).thenReturn(List.of(booking));
-        when(commentRepository.findAllByItemId(ID_1)).thenReturn(List.of(comment));
+        when(bookingRepository.findLastByItemIds(eq(List.of(ID_1)), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking));
+        when(bookingRepository.findNextByItemIds(eq(List.of(ID_1)), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(commentRepository.findAllByItemIdIn(List.of(ID_1))).thenReturn(List.of(comment));
         when(itemMapper.toItemFullDto(item1)).thenReturn(itemFullDto);
 
         List<ItemFullDto> itemsResult = itemService.findAll(user1.getId(), FROM, SIZE);
@@ -142,13 +155,18 @@ class ItemUnitTests {
         assertEquals(expectedSize, itemsResult.size());
         verify(itemRepository, times(1))
                 .findAllByOwnerId(user1.getId(), PageRequest.of(FROM / SIZE, SIZE));
+        verify(bookingRepository, times(1)).findLastByItemIds(eq(List.of(ID_1)), any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findNextByItemIds(eq(List.of(ID_1)), any(LocalDateTime.class));
+        verify(commentRepository, times(1)).findAllByItemIdIn(List.of(ID_1));
     }
 
     @Test
     void findById_shouldCallRepository() {
-        when(bookingRepository.findAllByItemIdOrderByStartAsc(item1.getId())).thenReturn(List.of(booking));
-        when(bookingRepository.findAllByItemIdOrderByStartDesc(item1.getId())).thenReturn(List.of(booking));
-        when(commentRepository.findAllByItemId(ID_1)).thenReturn(List.of(comment));
+        when(bookingRepository.findLastByItemIds(eq(List.of(ID_1)), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking));
+        when(bookingRepository.findNextByItemIds(eq(List.of(ID_1)), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(commentRepository.findAllByItemIdIn(List.of(ID_1))).thenReturn(List.of(comment));
         when(itemRepository.findById(ID_1)).thenReturn(Optional.ofNullable(item1));
         when(commentMapper.toCommentFullDto(comment)).thenReturn(commentFullDto);
         when(itemMapper.toItemFullDto(item1)).thenReturn(itemFullDto);
@@ -162,7 +180,7 @@ class ItemUnitTests {
 
     @Test
     void save_shouldCallRepository() {
-        when(userRepository.findById(user1.getId())).thenReturn(Optional.ofNullable(user1));
+        when(userRepository.findCachedById(user1.getId())).thenReturn(Optional.ofNullable(user1));
         when(itemMapper.fromItemDto(itemFullDto)).thenReturn(item1);
         when(itemRequestRepository.findById(ID_1)).thenReturn(Optional.ofNullable(itemRequest));
         when(itemMapper.toItemFullDto(item1)).thenReturn(itemFullDto);
@@ -195,6 +213,22 @@ class ItemUnitTests {
         itemService.delete(user1.getId(), ID_1);
 
         verify(itemRepository).delete(item1);
+        verify(bookingIntervalIndex).evict(ID_1);
+        verify(itemSearchIndex).remove(ID_1);
+    }
+
+    @Test
+    void search_shouldUseIndexAndLoadPageById() {
+        when(itemMapper.toItemFullDto(item1)).thenReturn(itemFullDto);
+        when(itemSearchIndex.supports("text")).thenReturn(true);
+        when(itemSearchIndex.search("text")).thenReturn(List.of(ID_1));
+        when(itemRepository.findAllById(List.of(ID_1))).thenReturn(List.of(item1));
+
+        List<ItemFullDto> itemsResult = itemService.search("text", FROM, SIZE);
+
+        int expectedSize = 1;
+        assertEquals(expectedSize, itemsResult.size());
+        verify(itemRepository, never()).search(anyString(), any(Pageable.class));
     }
 
     @Test
@@ -215,9 +249,10 @@ class ItemUnitTests {
 
     @Test
     void addComment_shouldCallRepository() {
-        when(bookingRepository.findAllByBookerId(ID_1)).thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(eq(ID_1), eq(ID_1),
+                eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(true);
         when(itemRepository.findById(ID_1)).thenReturn(Optional.ofNullable(item1));
-        when(userRepository.findById(user1.getId())).thenReturn(Optional.ofNullable(user1));
+        when(userRepository.findCachedById(user1.getId())).thenReturn(Optional.ofNullable(user1));
         when(commentMapper.fromCommentDto(commentDto, item1, user1)).thenReturn(comment);
         when(commentMapper.toCommentFullDto(comment)).thenReturn(commentFullDto);
         when(commentRepository.save(comment)).thenReturn(comment);
@@ -227,12 +262,36 @@ class ItemUnitTests {
         assertNotNull(commentFullDtoResult);
         assertEquals(ID_1, commentFullDtoResult.getId());
         verify(commentRepository, times(1)).save(comment);
+        verify(completedBookingCache, times(1)).add(ID_1, ID_1);
+    }
+
+    @Test
+    void addComment_shouldSkipBookingQueries_WhenPairCached() {
+        when(completedBookingCache.contains(ID_1, ID_1)).thenReturn(true);
+        when(itemRepository.findById(ID_1)).thenReturn(Optional.ofNullable(item1));
+        when(userRepository.findCachedById(user1.getId())).thenReturn(Optional.ofNullable(user1));
+        when(commentMapper.fromCommentDto(commentDto, item1, user1)).thenReturn(comment);
+        when(commentMapper.toCommentFullDto(comment)).thenReturn(commentFullDto);
+        when(commentRepository.save(comment)).thenReturn(comment);
+
+        itemService.addComment(user1.getId(), ID_1, commentDto);
+
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void addComment_shouldThrowValidationException_NoMatchingBookings() {
+        Exception exception = assertThrows(ValidationException.class, () ->
+                itemService.addComment(ID_1, ID_1, commentDto));
+
+        assertEquals(NO_MATCHING_BOOKINGS.getTitle(), exception.getMessage());
+        verify(completedBookingCache, never()).add(anyLong(), anyLong());
     }
 
     @Test
     void addComment_shouldThrowValidationException_BookingStatusNotApproved() throws ValidationException {
-        when(bookingRepository.findAllByBookerId(ID_1)).thenReturn(List.of(booking));
-        booking.setStatus(BookingStatus.CANCELED);
+        when(bookingRepository.existsByBookerIdAndItemIdAndEndBefore(eq(ID_1), eq(ID_1), any(LocalDateTime.class)))
+                .thenReturn(true);
         Exception exception = assertThrows(ValidationException.class, () ->
                 itemService.addComment(ID_1, ID_1, commentDto));
 
@@ -241,7 +300,7 @@ class ItemUnitTests {
 
     @Test
     void save_shouldThrowNotFoundException_userNotFound() throws ValidationException {
-        when(userRepository.findById(user1.getId())).thenReturn(Optional.empty());
+        when(userRepository.findCachedById(user1.getId())).thenReturn(Optional.empty());
         Exception exception = assertThrows(NotFoundException.class, () ->
                 itemService.save(ID_1, itemFullDto));
 
@@ -256,4 +315,31 @@ class ItemUnitTests {
 
         assertEquals(OWNER_NOT_FOUND.getTitle(), exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAvailability_shouldMergeBusySlotsIntoFreeGaps() {
+        LocalDateTime from = LocalDateTime.of(2022, 11, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(itemRepository.existsById(ID_1)).thenReturn(true);
+        when(bookingRepository.streamBusySlots(ID_1, from, to, BookingStatus.ACTIVE_STATUSES)).thenReturn(Stream.of(
+                new TimeSlot(from.minusDays(1), from.plusDays(1)),
+                new TimeSlot(from.plusDays(3), from.plusDays(5)),
+                new TimeSlot(from.plusDays(4), from.plusDays(6)),
+                new TimeSlot(from.plusDays(4), from.plusDays(5))));
+
+        List<TimeSlot> freeSlots = itemService.findAvailability(ID_1, from, to);
+
+        assertEquals(List.of(
+                new TimeSlot(from.plusDays(1), from.plusDays(3)),
+                new TimeSlot(from.plusDays(6), to)), freeSlots);
+    }
+
+    @Test
+    void findAvailability_shouldThrowValidationException_InvalidWindow() {
+        LocalDateTime from = LocalDateTime.of(2022, 11, 1, 0, 0);
+        Exception exception = assertThrows(ValidationException.class, () ->
+                itemService.findAvailability(ID_1, from, from));
+
+        assertEquals(INVALID_TIME_WINDOW.getTitle(), exception.getMessage());
+    }
+}
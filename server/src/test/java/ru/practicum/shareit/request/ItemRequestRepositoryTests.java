@@ -5,9 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -17,6 +17,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,6 +62,30 @@ class ItemRequestRepositoryTests {
         itemRequestRepository.save(itemRequest2);
     }
 
+    @Test
+    void findAllByRequestorIdAfter_shouldReturnRequestsOlderThanCursor() {
+        LocalDateTime created = LocalDateTime.of(2022, 11, 5, 1, 1);
+        ItemRequest newerRequest = itemRequestRepository.save(ItemRequest.builder()
+                .description("Description3")
+                .requestor(user1)
+                .created(created)
+                .build());
+        ItemRequest olderRequest = itemRequestRepository.save(ItemRequest.builder()
+                .description("Description4")
+                .requestor(user1)
+                .created(created.minusDays(1))
+                .build());
+
+        List<ItemRequest> firstPage = itemRequestRepository.findAllByRequestorIdOrderByCreatedDescIdDesc(
+                user1.getId(), PageRequest.of(0, 1));
+        List<ItemRequest> nextPage = itemRequestRepository.findAllByRequestorIdAfter(user1.getId(),
+                newerRequest.getCreated(), newerRequest.getId(), PageRequest.of(0, 5));
+
+        assertEquals(itemRequest1.getId(), firstPage.get(0).getId());
+        assertEquals(1, nextPage.size());
+        assertEquals(olderRequest.getId(), nextPage.get(0).getId());
+    }
+
     @Test
     void findAllByRequestorId_shouldReturnCollectionOfItemRequests() {
         Collection<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorId(1L);
@@ -77,13 +102,13 @@ class ItemRequestRepositoryTests {
     void findAllByRequestorNotLikeOrderByCreatedAsc_shouldReturnCollectionOfItemRequests() {
         Sort sortById = Sort.by(Sort.Direction.DESC, "created");
         Pageable page = PageRequest.of(0, 5, sortById);
-        Page<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorIsNot(user1,page);
+        Slice<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorIsNot(user1,page);
         Optional<ItemRequest> firstElement = itemRequests.stream().findFirst();
 
         int expectedSize = 1;
         assertNotNull(itemRequests);
         assertTrue(firstElement.isPresent());
-        assertEquals(expectedSize, itemRequests.getTotalElements());
+        assertEquals(expectedSize, itemRequests.getNumberOfElements());
         assertEquals(itemRequest2.getId(), firstElement.get().getId());
     }
 }
\ No newline at end of file
@@ -15,6 +15,8 @@ import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -29,6 +31,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static ru.practicum.shareit.error.ExceptionDescriptions.USER_NOT_FOUND;
 
@@ -76,6 +79,7 @@ class ItemRequestUnitTests {
             .name("itemName1")
             .description("itemDescription1")
             .available(true)
+            .request(itemRequest)
             .owner(user1).build();
     private final ItemShortDto itemShortDto = ItemShortDto.builder()
             .id(ID_1)
@@ -90,8 +94,8 @@ class ItemRequestUnitTests {
     void findAllByOwner_shouldCallRepository() {
         when(itemRequestRepository.findAllByRequestorId(user1.getId())).thenReturn(List.of(itemRequest));
         when(itemRequestMapper.toItemRequestDto(itemRequest)).thenReturn(itemRequestDto);
-        when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
-        when(itemRepository.findAllByRequestId(itemRequestDto.getId())).thenReturn(List.of(item));
+        when(userRepository.findCachedById(user1.getId())).thenReturn(Optional.of(user1));
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequestDto.getId()))).thenReturn(List.of(item));
 
         List<ItemRequestDto> itemRequestsResult = itemRequestService.findAllByOwner(user1.getId());
 
@@ -99,6 +103,28 @@ class ItemRequestUnitTests {
         assertNotNull(itemRequestsResult);
         assertEquals(expectedSize, itemRequestsResult.size());
         verify(itemRequestRepository, times(1)).findAllByRequestorId(user1.getId());
+        verify(itemRepository, never()).findAllByRequestId(anyLong());
+    }
+
+    @Test
+    void findAllByOwnerAfter_shouldReturnNextCursor() {
+        ItemRequest olderRequest = ItemRequest.builder()
+                .id(ID_2)
+                .description("itemRequestDescription2")
+                .created(itemRequest.getCreated().minusDays(1)).build();
+        when(userRepository.findCachedById(user1.getId())).thenReturn(Optional.of(user1));
+        when(itemRequestRepository.findAllByRequestorIdAfter(user1.getId(), itemRequest.getCreated().plusDays(1),
+                ID_2, PageRequest.of(0, 2))).thenReturn(List.of(itemRequest, olderRequest));
+        when(itemRequestMapper.toItemRequestDto(itemRequest)).thenReturn(itemRequestDto);
+        when(itemRepository.findAllByRequestIdIn(List.of(ID_1))).thenReturn(List.of(item));
+        when(itemMapper.toItemShortDto(item)).thenReturn(itemShortDto);
+        String cursor = new KeysetCursor(itemRequest.getCreated().plusDays(1), ID_2).encode();
+
+        KeysetPage<ItemRequestDto> page = itemRequestService.findAllByOwnerAfter(user1.getId(), cursor, 1);
+
+        assertEquals(List.of(itemRequestDto), page.getContent());
+        assertEquals(List.of(itemShortDto), page.getContent().get(0).getItems());
+        assertEquals(new KeysetCursor(itemRequest.getCreated(), ID_1).encode(), page.getNextCursor());
     }
 
     @Test
@@ -107,8 +133,8 @@ class ItemRequestUnitTests {
         when(itemRequestRepository.findAllByRequestorIsNot(user2, PAGE))
                 .thenReturn(new PageImpl<>(items, PAGE, items.size()));
         when(itemRequestMapper.toItemRequestDto(itemRequest)).thenReturn(itemRequestDto);
-        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
-        when(itemRepository.findAllByRequestId(itemRequestDto.getId())).thenReturn(List.of(item));
+        when(userRepository.findCachedById(user2.getId())).thenReturn(Optional.of(user2));
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequestDto.getId()))).thenReturn(List.of(item));
 
         List<ItemRequestDto> itemRequestsResult = itemRequestService.findAllByAnotherUser(user2.getId(), FROM, SIZE);
 
@@ -123,7 +149,7 @@ class ItemRequestUnitTests {
     void findById_shouldCallRepository() {
         when(itemRequestRepository.findById(itemRequest.getId())).thenReturn(Optional.of(itemRequest));
         when(itemRequestMapper.toItemRequestDto(itemRequest)).thenReturn(itemRequestDto);
-        when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
+        when(userRepository.findCachedById(user1.getId())).thenReturn(Optional.of(user1));
         when(itemMapper.toItemShortDto(item)).thenReturn(itemShortDto);
         when(itemRepository.findAllByRequestId(itemRequestDto.getId())).thenReturn(List.of(item));
 
@@ -139,7 +165,7 @@ class ItemRequestUnitTests {
         when(itemRequestRepository.save(itemRequest)).thenReturn(itemRequest);
         when(itemRequestMapper.toItemRequestDto(itemRequest)).thenReturn(itemRequestDto);
         when(itemRequestMapper.fromItemRequestDto(itemRequestDto, user1)).thenReturn(itemRequest);
-        when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
+        when(userRepository.findCachedById(user1.getId())).thenReturn(Optional.of(user1));
 
         Optional<ItemRequestDto> itemRequestDtoResult = itemRequestService.save(user1.getId(), itemRequestDto);
 
@@ -150,7 +176,7 @@ class ItemRequestUnitTests {
 
     @Test
     void save_shouldThrowNotFoundException_userNotFound() throws ValidationException {
-        when(userRepository.findById(user1.getId())).thenReturn(Optional.empty());
+        when(userRepository.findCachedById(user1.getId())).thenReturn(Optional.empty());
         Exception exception = assertThrows(NotFoundException.class, () ->
                 itemRequestService.findAllByOwner(ID_1));
 
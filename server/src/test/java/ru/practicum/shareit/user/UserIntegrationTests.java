@@ -1,10 +1,13 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -18,11 +21,13 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 
 @SpringBootTest
+@AutoConfigureMetrics
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class UserIntegrationTests {
     private final UserServiceImpl userService;
     private final UserMapper userMapper;
+    private final MeterRegistry meterRegistry;
     private final User mockUser = User.builder()
             .id(1)
             .name("userName1")
@@ -40,4 +45,19 @@ class UserIntegrationTests {
         assertThat(user.get().getName(), equalTo(mockUser.getName()));
         assertThat(user.get().getEmail(), equalTo(mockUser.getEmail()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findById_shouldServeRepeatedLookupsFromCacheUntilUpdated() throws ValidationException {
+        userService.save(userMapper.toUserDto(mockUser));
+
+        userService.findById(1);
+        userService.findById(1);
+        userService.update(1, UserDto.builder().name("newName").build());
+        Optional<UserDto> user = userService.findById(1);
+
+        assertThat(user.isPresent(), is(true));
+        assertThat(user.get().getName(), equalTo("newName"));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CacheConfig.USERS).tag("result", "hit")
+                .functionCounter().count(), equalTo(1.0));
+    }
+}
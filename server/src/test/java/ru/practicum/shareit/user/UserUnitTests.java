@@ -7,7 +7,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.config.SecondLevelCacheEvictor;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -26,6 +31,16 @@ class UserUnitTests {
     private UserMapper userMapper;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private SecondLevelCacheEvictor secondLevelCacheEvictor;
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -62,14 +77,14 @@ class UserUnitTests {
 
     @Test
     void testGetUserById() throws ValidationException {
-        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user1));
+        Mockito.when(userRepository.findCachedById(anyLong())).thenReturn(Optional.of(user1));
         Mockito.when(userMapper.toUserDto(user1)).thenReturn(userDto);
 
         Optional<UserDto> userDtoResult =  userService.findById(ID_1);
 
         assertTrue(userDtoResult.isPresent());
         assertEquals(ID_1, userDtoResult.get().getId());
-        verify(userRepository,times(1)).findById(ID_1);
+        verify(userRepository,times(1)).findCachedById(ID_1);
     }
 
     @Test
@@ -100,8 +115,15 @@ class UserUnitTests {
     @Test
     void testDeleteUser() throws ValidationException {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user1));
+        Mockito.when(itemRepository.findIdsDeletedWithUser(ID_1)).thenReturn(List.of(ID_2));
+        Mockito.when(itemRequestRepository.findIdsByRequestorId(ID_1)).thenReturn(List.of(ID_1));
         userService.delete(ID_1);
 
         Mockito.verify(userRepository, times(1)).delete(user1);
+        verify(bookingIntervalIndex, times(1)).releaseBooker(ID_1);
+        verify(bookingIntervalIndex, times(1)).evictAll(List.of(ID_2));
+        verify(bookingIntervalIndex, never()).evict(anyLong());
+        verify(itemSearchIndex, times(1)).removeAll(List.of(ID_2));
+        verify(secondLevelCacheEvictor, times(1)).evictUserCascade(List.of(ID_2), List.of(ID_1));
     }
 }
\ No newline at end of file